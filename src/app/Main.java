@@ -1,20 +1,48 @@
+import models.Cart;
+import models.Customer;
 import models.Drug;
+import models.SalesSummary;
+import models.StockAdjustment;
+import models.Supplier;
+import models.Transaction;
+import services.CustomerService;
+import services.DrugQuery;
 import services.DrugService;
+import services.ReportService;
+import services.SalesService;
+import services.StockService;
+import services.SupplierService;
+import structures.MySpaceSaving;
 import utils.FileUtils;
 import utils.InputUtils;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Main application class for Atinka Meds Pharmacy Inventory System
  */
 public class Main {
     private static DrugService drugService;
+    private static CustomerService customerService;
+    private static SalesService salesService;
+    private static SupplierService supplierService;
+    private static StockService stockService;
+    private static ReportService reportService;
 
     public static void main(String[] args) {
         // Initialize the system
         FileUtils.initializeDataFiles();
         drugService = new DrugService();
+        customerService = new CustomerService();
+        salesService = new SalesService(drugService, customerService);
+        supplierService = new SupplierService(drugService);
+        stockService = new StockService(drugService, salesService);
+        reportService = new ReportService(drugService, salesService, supplierService);
 
         InputUtils.printHeader("ATINKA MEDS PHARMACY INVENTORY SYSTEM");
         System.out.println("Welcome to the Atinka Meds Inventory Management System");
@@ -25,6 +53,7 @@ public class Main {
         boolean running = true;
         while (running) {
             try {
+                stockService.checkForRollover();
                 displayMainMenu();
                 int choice = InputUtils.readMenuChoice("Enter your choice", 9);
 
@@ -42,14 +71,10 @@ public class Main {
                         supplierManagementMenu();
                         break;
                     case 5:
-                        // Purchase/Sales menu (placeholder)
-                        System.out.println("Purchase/Sales management coming soon...");
-                        InputUtils.waitForEnter();
+                        purchaseAndSalesMenu();
                         break;
                     case 6:
-                        // Customer management (placeholder)
-                        System.out.println("Customer management coming soon...");
-                        InputUtils.waitForEnter();
+                        customerManagementMenu();
                         break;
                     case 7:
                         reportsMenu();
@@ -88,6 +113,12 @@ public class Main {
         System.out.println("8. System Information");
         System.out.println("9. Exit");
         System.out.println();
+
+        int alerts = stockService.getPendingAlertCount();
+        if (alerts > 0) {
+            System.out.println("🔔 " + alerts + " new stock alert(s) - see Stock Management > Stock Alerts");
+            System.out.println();
+        }
     }
 
     /**
@@ -166,8 +197,9 @@ public class Main {
                 break;
             }
 
-            drugService.addSupplierToDrug(drugCode, supplier);
-            System.out.println("Supplier added: " + supplier);
+            if (supplierService.linkDrug(supplier, drugCode)) {
+                System.out.println("Supplier added: " + supplier);
+            }
         }
     }
 
@@ -337,10 +369,12 @@ public class Main {
             System.out.println("5. Sort by Price");
             System.out.println("6. Sort by Stock Level");
             System.out.println("7. Sort by Expiration Date");
-            System.out.println("8. Back to Main Menu");
+            System.out.println("8. Autocomplete Search (Name or Code)");
+            System.out.println("9. Advanced Filter");
+            System.out.println("10. Back to Main Menu");
             System.out.println();
 
-            int choice = InputUtils.readMenuChoice("Enter your choice", 8);
+            int choice = InputUtils.readMenuChoice("Enter your choice", 10);
 
             switch (choice) {
                 case 1:
@@ -365,6 +399,12 @@ public class Main {
                     displaySortedDrugs(drugService.sortDrugsByExpirationDate(), "Expiration Date");
                     break;
                 case 8:
+                    autocompleteSearch();
+                    break;
+                case 9:
+                    advancedFilter();
+                    break;
+                case 10:
                     back = true;
                     break;
             }
@@ -382,6 +422,8 @@ public class Main {
 
         if (drug == null) {
             System.out.println("No drug found with code: " + drugCode);
+            printSuggestions(drugService.suggestDrugsByCode(drugCode));
+            printNextInOrder(drugService.findDrugByCodeAtOrAfter(drugCode), "code");
         } else {
             System.out.println("Drug found:");
             System.out.println(drug);
@@ -390,6 +432,71 @@ public class Main {
         InputUtils.waitForEnter();
     }
 
+    /**
+     * Autocomplete search - refine a prefix until the wanted drug is suggested
+     */
+    private static void autocompleteSearch() {
+        InputUtils.printHeader("AUTOCOMPLETE SEARCH");
+        System.out.println("Type the start of a drug name or code to see suggestions.");
+        System.out.println("Enter a suggestion number to view it, or press Enter to go back.");
+
+        Drug[] suggestions = new Drug[0];
+        while (true) {
+            String input = InputUtils.readString("Prefix or suggestion number");
+            if (input.isEmpty()) {
+                return;
+            }
+
+            if (input.matches("\\d+") && suggestions.length > 0) {
+                int index = Integer.parseInt(input);
+                if (index >= 1 && index <= suggestions.length) {
+                    System.out.println("Drug selected:");
+                    System.out.println(suggestions[index - 1]);
+                    InputUtils.waitForEnter();
+                    return;
+                }
+            }
+
+            suggestions = drugService.suggestDrugs(input);
+            if (suggestions.length == 0) {
+                System.out.println("No drugs start with: " + input);
+                // Offer close spellings instead, selectable by number
+                suggestions = drugService.suggestSimilarDrugs(input);
+                if (suggestions.length > 0) {
+                    System.out.println("Did you mean:");
+                }
+            }
+            if (suggestions.length > 0) {
+                for (int i = 0; i < suggestions.length; i++) {
+                    Drug drug = suggestions[i];
+                    System.out.printf("  %d. %-25s (%s) - Stock: %d%n", i + 1, drug.getName(),
+                            drug.getDrugCode(), drug.getStockLevel());
+                }
+            }
+        }
+    }
+
+    /**
+     * Print "did you mean" style suggestions, if any
+     */
+    private static void printSuggestions(Drug[] suggestions) {
+        if (suggestions.length > 0) {
+            System.out.println("Did you mean:");
+            for (Drug suggestion : suggestions) {
+                System.out.println("  • " + suggestion.getName() + " (" + suggestion.getDrugCode() + ")");
+            }
+        }
+    }
+
+    /**
+     * Print the drug that follows a missing name or code in sorted order, if any
+     */
+    private static void printNextInOrder(Drug drug, String field) {
+        if (drug != null) {
+            System.out.println("Next drug by " + field + ": " + drug.getName() + " (" + drug.getDrugCode() + ")");
+        }
+    }
+
     /**
      * Search by drug name
      */
@@ -401,6 +508,8 @@ public class Main {
 
         if (drugs.length == 0) {
             System.out.println("No drugs found with name containing: " + name);
+            printSuggestions(drugService.suggestSimilarDrugs(name));
+            printNextInOrder(drugService.findDrugByNameAtOrAfter(name), "name");
         } else {
             System.out.println("Found " + drugs.length + " drug(s):");
             InputUtils.printSeparator();
@@ -412,6 +521,61 @@ public class Main {
         InputUtils.waitForEnter();
     }
 
+    /**
+     * Advanced filter - combine several criteria in one query (blank to skip)
+     */
+    private static void advancedFilter() {
+        InputUtils.printHeader("ADVANCED FILTER");
+        System.out.println("Leave a criterion blank to skip it.");
+
+        DrugQuery query = new DrugQuery();
+        try {
+            String supplier = InputUtils.readString("Supplier");
+            if (!supplier.isEmpty()) {
+                query.withSupplier(supplier);
+            }
+
+            String name = InputUtils.readString("Name contains");
+            if (!name.isEmpty()) {
+                query.withNameContaining(name);
+            }
+
+            String minPrice = InputUtils.readString("Minimum price");
+            String maxPrice = InputUtils.readString("Maximum price");
+            if (!minPrice.isEmpty() || !maxPrice.isEmpty()) {
+                query.withPriceBetween(minPrice.isEmpty() ? 0 : Double.parseDouble(minPrice),
+                        maxPrice.isEmpty() ? Double.MAX_VALUE : Double.parseDouble(maxPrice));
+            }
+
+            String expiry = InputUtils.readString("Expiring before (yyyy-MM-dd)");
+            if (!expiry.isEmpty()) {
+                query.withExpiryBefore(LocalDate.parse(expiry));
+            }
+
+            String stock = InputUtils.readString("Stock below");
+            if (!stock.isEmpty()) {
+                query.withStockBelow(Integer.parseInt(stock));
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            System.out.println("Invalid value: " + e.getMessage());
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        Drug[] drugs = drugService.findDrugs(query);
+        if (drugs.length == 0) {
+            System.out.println("No drugs match " + query);
+        } else {
+            System.out.println("Found " + drugs.length + " drug(s) matching " + query + ":");
+            InputUtils.printSeparator();
+            for (Drug drug : drugs) {
+                System.out.println(drug);
+            }
+        }
+
+        InputUtils.waitForEnter();
+    }
+
     /**
      * Search by supplier
      */
@@ -419,7 +583,7 @@ public class Main {
         InputUtils.printHeader("SEARCH BY SUPPLIER");
 
         String supplier = InputUtils.readNonEmptyString("Enter Supplier Name");
-        Drug[] drugs = drugService.searchDrugsBySupplier(supplier);
+        Drug[] drugs = supplierService.getDrugsSuppliedBy(supplier);
 
         if (drugs.length == 0) {
             System.out.println("No drugs found from supplier: " + supplier);
@@ -475,10 +639,12 @@ public class Main {
             System.out.println("3. View Low Stock Drugs");
             System.out.println("4. View Expired Drugs");
             System.out.println("5. Stock Alerts");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Receive Delivery (Batch Restock)");
+            System.out.println("7. Sales Velocity (7 / 30 Days)");
+            System.out.println("8. Back to Main Menu");
             System.out.println();
 
-            int choice = InputUtils.readMenuChoice("Enter your choice", 6);
+            int choice = InputUtils.readMenuChoice("Enter your choice", 8);
 
             switch (choice) {
                 case 1:
@@ -497,6 +663,12 @@ public class Main {
                     showStockAlerts();
                     break;
                 case 6:
+                    receiveDelivery();
+                    break;
+                case 7:
+                    viewSalesVelocity();
+                    break;
+                case 8:
                     back = true;
                     break;
             }
@@ -554,6 +726,57 @@ public class Main {
         InputUtils.waitForEnter();
     }
 
+    /**
+     * Receive a delivery - enter every line, then restock all drugs with one save
+     */
+    private static void receiveDelivery() {
+        InputUtils.printHeader("RECEIVE DELIVERY");
+        System.out.println("Enter one line per drug as: <Drug Code> <Quantity>");
+        System.out.println("Press Enter on an empty line when done.");
+
+        List<StockAdjustment> lines = new ArrayList<>();
+        while (true) {
+            String input = InputUtils.readString("Line " + (lines.size() + 1));
+            if (input.isEmpty()) {
+                break;
+            }
+
+            String[] parts = input.split("\\s+");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException("expected code and quantity");
+                }
+                lines.add(new StockAdjustment(parts[0], StockAdjustment.Type.ADD, Integer.parseInt(parts[1])));
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid line, please use: <Drug Code> <Quantity>");
+            }
+        }
+
+        if (lines.isEmpty()) {
+            System.out.println("No delivery lines entered.");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        List<StockAdjustment.Result> results = drugService.applyStockAdjustments(lines);
+        int applied = 0;
+        System.out.printf("%-10s %-8s %-10s %s%n", "Code", "Qty", "New Stock", "Result");
+        InputUtils.printSeparator();
+        for (StockAdjustment.Result result : results) {
+            System.out.printf("%-10s %-8d %-10s %s%n",
+                    result.getAdjustment().getDrugCode(),
+                    result.getAdjustment().getQuantity(),
+                    result.isApplied() ? String.valueOf(result.getResultingStock()) : "-",
+                    result.getMessage());
+            if (result.isApplied()) {
+                applied++;
+            }
+        }
+        System.out.println("\nApplied " + applied + " of " + results.size() + " line(s).");
+
+        InputUtils.waitForEnter();
+    }
+
     /**
      * View low stock drugs
      */
@@ -565,15 +788,16 @@ public class Main {
         if (lowStockDrugs.length == 0) {
             System.out.println("No drugs with low stock!");
         } else {
-            System.out.printf("%-10s %-25s %-8s %-12s%n", "Code", "Name", "Stock", "Threshold");
+            System.out.printf("%-10s %-25s %-8s %-12s %-10s%n", "Code", "Name", "Stock", "Threshold", "Days Left");
             InputUtils.printSeparator();
 
             for (Drug drug : lowStockDrugs) {
-                System.out.printf("%-10s %-25s %-8d %-12d%n",
+                System.out.printf("%-10s %-25s %-8d %-12d %-10s%n",
                         drug.getDrugCode(),
                         drug.getName().length() > 25 ? drug.getName().substring(0, 22) + "..." : drug.getName(),
                         drug.getStockLevel(),
-                        drug.getMinStockThreshold());
+                        drug.getMinStockThreshold(),
+                        formatDaysLeft(stockService.getDaysOfStockLeft(drug)));
             }
 
             System.out.println("\nTotal low stock drugs: " + lowStockDrugs.length);
@@ -582,13 +806,51 @@ public class Main {
         InputUtils.waitForEnter();
     }
 
+    /**
+     * Show 7- and 30-day sales per drug with how long the stock lasts at that rate
+     */
+    private static void viewSalesVelocity() {
+        InputUtils.printHeader("SALES VELOCITY");
+
+        String[] drugCodes = stockService.getRecentlySoldDrugCodes();
+        if (drugCodes.length == 0) {
+            System.out.println("No sales in the last " + StockService.LONG_WINDOW_DAYS + " days.");
+        } else {
+            System.out.printf("%-8s %-22s %6s %7s %6s %7s %6s %10s%n", "Code", "Name", "7d", "7d/day",
+                    "30d", "30d/day", "Stock", "Days Left");
+            InputUtils.printSeparator();
+
+            for (String drugCode : drugCodes) {
+                Drug drug = drugService.getDrug(drugCode);
+                if (drug == null) {
+                    continue;
+                }
+                System.out.printf("%-8s %-22s %6d %7.1f %6d %7.1f %6d %10s%n",
+                        drugCode,
+                        drug.getName().length() > 22 ? drug.getName().substring(0, 19) + "..." : drug.getName(),
+                        stockService.getUnitsSold(drugCode, StockService.SHORT_WINDOW_DAYS),
+                        stockService.getAverageDailySales(drugCode, StockService.SHORT_WINDOW_DAYS),
+                        stockService.getUnitsSold(drugCode, StockService.LONG_WINDOW_DAYS),
+                        stockService.getAverageDailySales(drugCode, StockService.LONG_WINDOW_DAYS),
+                        drug.getStockLevel(),
+                        formatDaysLeft(stockService.getDaysOfStockLeft(drug)));
+            }
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    private static String formatDaysLeft(double days) {
+        return days < 0 ? "-" : String.format("%.1f", days);
+    }
+
     /**
      * View expired drugs
      */
     private static void viewExpiredDrugs() {
         InputUtils.printHeader("EXPIRED DRUGS");
 
-        Drug[] expiredDrugs = drugService.getExpiredDrugs();
+        Drug[] expiredDrugs = stockService.getExpiredDrugs();
 
         if (expiredDrugs.length == 0) {
             System.out.println("No expired drugs found!");
@@ -612,21 +874,32 @@ public class Main {
     }
 
     /**
-     * Show stock alerts
+     * Show the alerts pushed since the last visit, then the current alert summary
      */
     private static void showStockAlerts() {
         InputUtils.printHeader("STOCK ALERTS");
 
-        Drug[] lowStockDrugs = drugService.getLowStockDrugs();
-        Drug[] expiredDrugs = drugService.getExpiredDrugs();
+        List<StockService.StockAlert> newAlerts = stockService.drainAlerts();
+        if (!newAlerts.isEmpty()) {
+            System.out.println("🔔 NEW SINCE LAST CHECK:");
+            for (StockService.StockAlert alert : newAlerts) {
+                System.out.println("  • [" + alert.getDate() + "] " + alert);
+            }
+            System.out.println();
+        }
+
+        Drug[] lowStockDrugs = stockService.getLowStockDrugs();
+        Drug[] expiredDrugs = stockService.getExpiredDrugs();
+        Drug[] expiringSoonDrugs = stockService.getExpiringSoonDrugs();
 
         System.out.println("📊 STOCK ALERT SUMMARY");
         InputUtils.printSeparator();
         System.out.println("Low Stock Drugs: " + lowStockDrugs.length);
         System.out.println("Expired Drugs: " + expiredDrugs.length);
+        System.out.println("Expiring within " + StockService.EXPIRING_SOON_DAYS + " days: " + expiringSoonDrugs.length);
         System.out.println("Total Drugs: " + drugService.getDrugCount());
 
-        if (lowStockDrugs.length > 0 || expiredDrugs.length > 0) {
+        if (lowStockDrugs.length > 0 || expiredDrugs.length > 0 || expiringSoonDrugs.length > 0) {
             System.out.println("\n⚠️  IMMEDIATE ATTENTION REQUIRED!");
 
             if (expiredDrugs.length > 0) {
@@ -637,6 +910,14 @@ public class Main {
                 }
             }
 
+            if (expiringSoonDrugs.length > 0) {
+                System.out.println("\n⏳ EXPIRING SOON (Sell or return first):");
+                for (Drug drug : expiringSoonDrugs) {
+                    System.out.println("  • " + drug.getName() + " (" + drug.getDrugCode() +
+                            ") - Expires: " + drug.getExpirationDate());
+                }
+            }
+
             if (lowStockDrugs.length > 0) {
                 System.out.println("\n📦 LOW STOCK DRUGS (Reorder soon):");
                 for (Drug drug : lowStockDrugs) {
@@ -652,22 +933,688 @@ public class Main {
     }
 
     /**
-     * Supplier Management submenu (placeholder)
+     * Purchase & Sales submenu
+     */
+    private static void purchaseAndSalesMenu() {
+        boolean back = false;
+        while (!back) {
+            InputUtils.clearScreen();
+            InputUtils.printHeader("PURCHASE & SALES");
+            System.out.println("1. New Sale (Cart Checkout)");
+            System.out.println("2. View Sales by Time Range");
+            System.out.println("3. Sales Summary (Day, Week, Month)");
+            System.out.println("4. Back to Main Menu");
+            System.out.println();
+
+            int choice = InputUtils.readMenuChoice("Enter your choice", 4);
+
+            switch (choice) {
+                case 1:
+                    newSale();
+                    break;
+                case 2:
+                    viewSalesByTimeRange();
+                    break;
+                case 3:
+                    salesSummary();
+                    break;
+                case 4:
+                    back = true;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * New sale - fill a cart, then check out every line at once
+     */
+    private static void newSale() {
+        InputUtils.printHeader("NEW SALE");
+
+        String customerId = InputUtils.readString("Customer ID (leave blank for walk-in)");
+        while (!customerId.isEmpty() && !customerService.customerExists(customerId)) {
+            System.out.println("Customer not found!");
+            customerId = InputUtils.readString("Customer ID (leave blank for walk-in)");
+        }
+        Cart cart = new Cart(customerId.isEmpty() ? null : customerId);
+
+        System.out.println("Add items to the cart. Press Enter on an empty drug code to finish.");
+        while (true) {
+            String drugCode = InputUtils.readString("Drug Code");
+            if (drugCode.isEmpty()) {
+                break;
+            }
+
+            Drug drug = drugService.getDrug(drugCode);
+            if (drug == null) {
+                System.out.println("Drug not found!");
+                printSuggestions(drugService.suggestDrugsByCode(drugCode));
+                continue;
+            }
+
+            System.out.println(drug.getName() + " - Price: $" + String.format("%.2f", drug.getPrice())
+                    + ", In stock: " + drug.getStockLevel());
+            int quantity = InputUtils.readPositiveInt("Quantity");
+            cart.addItem(drug.getDrugCode(), quantity);
+        }
+
+        if (cart.isEmpty()) {
+            System.out.println("Cart is empty, sale cancelled.");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        System.out.println("\nCart: " + cart.getLineCount() + " item(s)");
+        if (!InputUtils.readConfirmation("Confirm checkout")) {
+            System.out.println("Sale cancelled.");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        Transaction[] sales = salesService.checkout(cart);
+        if (sales == null) {
+            System.out.println("Checkout failed - no stock was changed.");
+        } else {
+            double total = 0;
+            System.out.printf("%-8s %-25s %-6s %-10s %-10s%n", "Sale", "Drug", "Qty", "Price", "Total");
+            InputUtils.printSeparator();
+            for (Transaction sale : sales) {
+                Drug drug = drugService.getDrug(sale.getDrugCode());
+                System.out.printf("%-8s %-25s %-6d $%-9.2f $%-9.2f%n",
+                        sale.getTransactionId(),
+                        drug != null ? drug.getName() : sale.getDrugCode(),
+                        sale.getQuantity(),
+                        sale.getUnitPrice(),
+                        sale.getTotalCost());
+                total += sale.getTotalCost();
+            }
+            System.out.printf("%nSale completed. Grand total: $%.2f%n", total);
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * View sales made on one day between two times
+     */
+    private static void viewSalesByTimeRange() {
+        InputUtils.printHeader("SALES BY TIME RANGE");
+
+        LocalDate day = InputUtils.readDate("Day");
+        LocalTime from;
+        LocalTime to;
+        try {
+            String fromStr = InputUtils.readString("From time (HH:mm, blank for start of day)");
+            String toStr = InputUtils.readString("To time (HH:mm, blank for end of day)");
+            from = fromStr.isEmpty() ? LocalTime.MIN : LocalTime.parse(fromStr);
+            to = toStr.isEmpty() ? null : LocalTime.parse(toStr);
+        } catch (DateTimeParseException e) {
+            System.out.println("Please enter times in HH:mm format.");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        List<Transaction> sales = salesService.getSalesBetween(day.atTime(from),
+                to == null ? day.plusDays(1).atStartOfDay() : day.atTime(to));
+        if (sales.isEmpty()) {
+            System.out.println("No sales found in that period.");
+        } else {
+            double total = 0;
+            System.out.printf("%-8s %-10s %-6s %-10s %-18s%n", "Sale", "Drug", "Qty", "Total", "Time");
+            InputUtils.printSeparator();
+            for (Transaction sale : sales) {
+                System.out.printf("%-8s %-10s %-6d $%-9.2f %-18s%n",
+                        sale.getTransactionId(),
+                        sale.getDrugCode(),
+                        sale.getQuantity(),
+                        sale.getTotalCost(),
+                        sale.getFormattedTimestamp());
+                total += sale.getTotalCost();
+            }
+            System.out.printf("%nSales: %d, Revenue: $%.2f%n", sales.size(), total);
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Sales summary for a day and the week and month containing it
+     */
+    private static void salesSummary() {
+        InputUtils.printHeader("SALES SUMMARY");
+
+        String dateStr = InputUtils.readString("Day (yyyy-MM-dd, blank for today)");
+        LocalDate day;
+        try {
+            day = dateStr.isEmpty() ? LocalDate.now() : LocalDate.parse(dateStr);
+        } catch (DateTimeParseException e) {
+            System.out.println("Please enter a valid date in yyyy-MM-dd format.");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        List<Transaction> transactions = salesService.getTransactionsOn(day);
+        System.out.println("Transactions on " + day + ": " + transactions.size());
+        for (Transaction transaction : transactions) {
+            System.out.printf("  %-8s %-8s x%-4d $%.2f%n", transaction.getTransactionId(),
+                    transaction.getDrugCode(), transaction.getQuantity(), transaction.getTotalCost());
+        }
+        InputUtils.printSeparator();
+        System.out.printf("Revenue for %s: $%.2f%n", day, salesService.getDailyRevenue(day));
+        System.out.printf("Revenue for week of %s: $%.2f%n", day, salesService.getWeeklyRevenue(day));
+        YearMonth month = YearMonth.from(day);
+        System.out.printf("Revenue for %s: $%.2f%n", month, salesService.getMonthlyRevenue(month));
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Customer Management submenu
+     */
+    private static void customerManagementMenu() {
+        boolean back = false;
+        while (!back) {
+            InputUtils.clearScreen();
+            InputUtils.printHeader("CUSTOMER MANAGEMENT");
+            System.out.println("1. Register New Customer");
+            System.out.println("2. View Customer & Purchase History");
+            System.out.println("3. Search Customers by Name");
+            System.out.println("4. Find Customer by Phone Number");
+            System.out.println("5. List All Customers");
+            System.out.println("6. Back to Main Menu");
+            System.out.println();
+
+            int choice = InputUtils.readMenuChoice("Enter your choice", 6);
+
+            switch (choice) {
+                case 1:
+                    registerCustomer();
+                    break;
+                case 2:
+                    viewCustomerHistory();
+                    break;
+                case 3:
+                    searchCustomersByName();
+                    break;
+                case 4:
+                    findCustomerByPhone();
+                    break;
+                case 5:
+                    displayCustomers(customerService.getAllCustomers(), "ALL CUSTOMERS");
+                    break;
+                case 6:
+                    back = true;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Register a new customer
+     */
+    private static void registerCustomer() {
+        InputUtils.printHeader("REGISTER NEW CUSTOMER");
+
+        String name = InputUtils.readNonEmptyString("Name");
+        String contact = InputUtils.readPhoneNumber("Phone Number");
+
+        Customer customer = customerService.addCustomer(name, contact);
+        if (customer != null) {
+            System.out.println(customer);
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * View a customer with their purchase history, one page at a time (newest first)
+     */
+    private static void viewCustomerHistory() {
+        InputUtils.printHeader("CUSTOMER PURCHASE HISTORY");
+
+        String customerId = InputUtils.readNonEmptyString("Enter Customer ID");
+        Customer customer = customerService.getCustomer(customerId);
+        if (customer == null) {
+            System.out.println("Customer not found!");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        System.out.println(customer);
+        if (customer.getTransactionCount() == 0) {
+            System.out.println("No purchases recorded yet.");
+            InputUtils.waitForEnter();
+            return;
+        }
+        System.out.println("Last transaction: " + customer.getLastTransaction());
+
+        final int pageSize = 10;
+        int pages = customer.getTransactionPageCount(pageSize);
+        for (int page = 0; page < pages; page++) {
+            InputUtils.printSeparator();
+            System.out.println("Page " + (page + 1) + " of " + pages + " (newest first)");
+            for (String transactionId : customerService.getTransactionHistory(customerId, page, pageSize)) {
+                System.out.println("  " + transactionId);
+            }
+            if (page + 1 < pages && !InputUtils.readConfirmation("Show older transactions")) {
+                break;
+            }
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Search customers by name
+     */
+    private static void searchCustomersByName() {
+        InputUtils.printHeader("SEARCH CUSTOMERS");
+
+        String name = InputUtils.readNonEmptyString("Enter Customer Name (partial matches allowed)");
+        displayCustomers(customerService.searchCustomersByName(name), "CUSTOMERS MATCHING '" + name + "'");
+    }
+
+    /**
+     * Find customers by phone number
+     */
+    private static void findCustomerByPhone() {
+        InputUtils.printHeader("FIND CUSTOMER BY PHONE");
+
+        String phone = InputUtils.readPhoneNumber("Phone Number");
+        displayCustomers(customerService.findCustomersByPhone(phone), "CUSTOMERS WITH PHONE " + phone);
+    }
+
+    /**
+     * Display a list of customers
+     */
+    private static void displayCustomers(Customer[] customers, String title) {
+        InputUtils.printHeader(title);
+
+        if (customers.length == 0) {
+            System.out.println("No customers found.");
+        } else {
+            System.out.printf("%-8s %-25s %-15s %-12s%n", "ID", "Name", "Contact", "Purchases");
+            InputUtils.printSeparator();
+            for (Customer customer : customers) {
+                System.out.printf("%-8s %-25s %-15s %-12d%n",
+                        customer.getCustomerId(),
+                        customer.getName().length() > 25 ? customer.getName().substring(0, 22) + "..."
+                                : customer.getName(),
+                        customer.getContact(),
+                        customer.getTransactionCount());
+            }
+            System.out.println("\nTotal customers: " + customers.length);
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Supplier Management submenu
      */
     private static void supplierManagementMenu() {
-        InputUtils.printHeader("SUPPLIER MANAGEMENT");
-        System.out.println("This feature is under development.");
-        System.out.println("Coming soon: Supplier registration, drug-supplier mapping, delivery tracking");
+        boolean back = false;
+        while (!back) {
+            InputUtils.clearScreen();
+            InputUtils.printHeader("SUPPLIER MANAGEMENT");
+            System.out.println("1. Register New Supplier");
+            System.out.println("2. List Suppliers (Fastest Delivery First)");
+            System.out.println("3. Update Supplier Details");
+            System.out.println("4. View Drugs from a Supplier");
+            System.out.println("5. Link Drug to Supplier");
+            System.out.println("6. Unlink Drug from Supplier");
+            System.out.println("7. Fastest Supplier for a Drug");
+            System.out.println("8. Back to Main Menu");
+            System.out.println();
+
+            int choice = InputUtils.readMenuChoice("Enter your choice", 8);
+
+            switch (choice) {
+                case 1:
+                    registerSupplier();
+                    break;
+                case 2:
+                    displaySuppliers(supplierService.getSuppliersByTurnaround(), "SUPPLIERS BY DELIVERY TURNAROUND");
+                    break;
+                case 3:
+                    updateSupplier();
+                    break;
+                case 4:
+                    viewSupplierDrugs();
+                    break;
+                case 5:
+                    linkDrugToSupplier(true);
+                    break;
+                case 6:
+                    linkDrugToSupplier(false);
+                    break;
+                case 7:
+                    fastestSupplierForDrug();
+                    break;
+                case 8:
+                    back = true;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Register a new supplier
+     */
+    private static void registerSupplier() {
+        InputUtils.printHeader("REGISTER NEW SUPPLIER");
+
+        String name = InputUtils.readNonEmptyString("Name");
+        String contact = InputUtils.readPhoneNumber("Phone Number");
+        String location = InputUtils.readNonEmptyString("Location");
+        int days = InputUtils.readNonNegativeInt("Delivery Turnaround (days)");
+
+        Supplier supplier = supplierService.addSupplier(name, contact, location, days);
+        if (supplier != null) {
+            System.out.println(supplier);
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Update a supplier's contact, location and delivery turnaround
+     */
+    private static void updateSupplier() {
+        InputUtils.printHeader("UPDATE SUPPLIER");
+
+        String supplierId = InputUtils.readNonEmptyString("Enter Supplier ID");
+        Supplier supplier = supplierService.getSupplier(supplierId);
+        if (supplier == null) {
+            System.out.println("Supplier not found!");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        System.out.println("Current: " + supplier);
+        System.out.println("Press Enter to keep the current value.");
+
+        String contact = InputUtils.readString("Phone Number [" + supplier.getContact() + "]");
+        String location = InputUtils.readString("Location [" + supplier.getLocation() + "]");
+        String days = InputUtils.readString("Delivery Turnaround in days [" + supplier.getDeliveryTurnaroundDays() + "]");
+
+        try {
+            int turnaround = days.isEmpty() ? supplier.getDeliveryTurnaroundDays() : Integer.parseInt(days);
+            if (turnaround < 0) {
+                throw new NumberFormatException();
+            }
+            if (supplierService.updateSupplier(supplierId,
+                    contact.isEmpty() ? supplier.getContact() : contact,
+                    location.isEmpty() ? supplier.getLocation() : location,
+                    turnaround)) {
+                System.out.println("Supplier updated successfully.");
+            } else {
+                System.out.println("Failed to update supplier.");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number of days. No changes made.");
+        }
+
         InputUtils.waitForEnter();
     }
 
     /**
-     * Reports menu (placeholder)
+     * View the drugs linked to a supplier
+     */
+    private static void viewSupplierDrugs() {
+        InputUtils.printHeader("DRUGS FROM SUPPLIER");
+
+        String supplier = InputUtils.readNonEmptyString("Enter Supplier Name");
+        Drug[] drugs = supplierService.getDrugsSuppliedBy(supplier);
+
+        if (drugs.length == 0) {
+            System.out.println("No drugs found from supplier: " + supplier);
+        } else {
+            System.out.println("Found " + drugs.length + " drug(s) from " + supplier + ":");
+            InputUtils.printSeparator();
+            for (Drug drug : drugs) {
+                System.out.println(drug);
+            }
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Link a drug to a supplier, or remove the link
+     */
+    private static void linkDrugToSupplier(boolean link) {
+        InputUtils.printHeader(link ? "LINK DRUG TO SUPPLIER" : "UNLINK DRUG FROM SUPPLIER");
+
+        String supplier = InputUtils.readNonEmptyString("Supplier Name");
+        String drugCode = InputUtils.readNonEmptyString("Drug Code");
+
+        boolean success = link ? supplierService.linkDrug(supplier, drugCode)
+                : supplierService.unlinkDrug(supplier, drugCode);
+        if (success) {
+            System.out.println(link ? supplier + " now supplies " + drugCode + "."
+                    : supplier + " no longer supplies " + drugCode + ".");
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Show the registered suppliers of a drug, fastest delivery first
+     */
+    private static void fastestSupplierForDrug() {
+        InputUtils.printHeader("FASTEST SUPPLIER FOR A DRUG");
+
+        String drugCode = InputUtils.readNonEmptyString("Enter Drug Code");
+        Supplier fastest = supplierService.getFastestSupplier(drugCode);
+        if (fastest == null) {
+            System.out.println("No registered supplier supplies " + drugCode + ".");
+            String[] named = supplierService.getSuppliersOfDrug(drugCode);
+            if (named.length > 0) {
+                System.out.println("Unregistered suppliers on record: " + String.join(", ", named));
+            }
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        System.out.println("Fastest: " + fastest.getName() + " (" + fastest.getDeliveryTurnaroundDays()
+                + " days, " + fastest.getLocation() + ")");
+        displaySuppliers(supplierService.getRegisteredSuppliersOfDrug(drugCode), "ALL SUPPLIERS OF " + drugCode);
+    }
+
+    /**
+     * Display a list of suppliers
+     */
+    private static void displaySuppliers(Supplier[] suppliers, String title) {
+        InputUtils.printHeader(title);
+
+        if (suppliers.length == 0) {
+            System.out.println("No suppliers found.");
+        } else {
+            System.out.printf("%-8s %-20s %-12s %-10s %-8s%n", "ID", "Name", "Location", "Delivery", "Drugs");
+            InputUtils.printSeparator();
+            for (Supplier supplier : suppliers) {
+                System.out.printf("%-8s %-20s %-12s %-10s %-8d%n",
+                        supplier.getSupplierId(),
+                        supplier.getName().length() > 20 ? supplier.getName().substring(0, 17) + "..."
+                                : supplier.getName(),
+                        supplier.getLocation(),
+                        supplier.getDeliveryTurnaroundDays() + " days",
+                        supplierService.getDrugCount(supplier.getName()));
+            }
+            System.out.println("\nTotal suppliers: " + suppliers.length);
+        }
+
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Reports & Analytics submenu
      */
     private static void reportsMenu() {
-        InputUtils.printHeader("REPORTS & ANALYTICS");
-        System.out.println("This feature is under development.");
-        System.out.println("Coming soon: Sales reports, inventory analysis, algorithm performance reports");
+        boolean back = false;
+        while (!back) {
+            InputUtils.clearScreen();
+            InputUtils.printHeader("REPORTS & ANALYTICS");
+            System.out.println("1. Inventory Report");
+            System.out.println("2. Sales Report (Date Range)");
+            System.out.println("3. Sales Summary (Day / Month / Year)");
+            System.out.println("4. End-of-Day Reports (All)");
+            System.out.println("5. Top Sellers (Recent Days)");
+            System.out.println("6. Export Transactions (Sorted by Time)");
+            System.out.println("7. Back to Main Menu");
+            System.out.println();
+
+            int choice = InputUtils.readMenuChoice("Enter your choice", 7);
+
+            switch (choice) {
+                case 1:
+                    printReportResult(reportService.generateInventoryReport());
+                    break;
+                case 2:
+                    generateSalesReport();
+                    break;
+                case 3:
+                    showSalesSummary();
+                    break;
+                case 4:
+                    generateEndOfDayReports();
+                    break;
+                case 5:
+                    showTopSellers();
+                    break;
+                case 6:
+                    printReportResult(reportService.exportTransactionsByTime());
+                    break;
+                case 7:
+                    back = true;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Show the sales totals of a day, month or year and save them as a report
+     */
+    private static void showSalesSummary() {
+        InputUtils.printHeader("SALES SUMMARY");
+
+        System.out.println("1. Daily");
+        System.out.println("2. Monthly");
+        System.out.println("3. Yearly");
+        int period = InputUtils.readMenuChoice("Select period", 3);
+
+        SalesSummary summary;
+        switch (period) {
+            case 1:
+                summary = reportService.getDailySales(InputUtils.readDate("Day"));
+                break;
+            case 2:
+                int year = InputUtils.readInt("Year", 2000, 2100);
+                int month = InputUtils.readInt("Month", 1, 12);
+                summary = reportService.getMonthlySales(YearMonth.of(year, month));
+                break;
+            default:
+                summary = reportService.getYearlySales(InputUtils.readInt("Year", 2000, 2100));
+                break;
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %-25s %8s %12s %8s%n", "Code", "Name", "Units", "Revenue", "Sales");
+        InputUtils.printSeparator();
+        for (SalesSummary.DrugTotals totals : summary.getDrugTotals()) {
+            Drug drug = drugService.getDrug(totals.getDrugCode());
+            String name = drug != null ? drug.getName() : "(removed)";
+            System.out.printf("%-8s %-25s %8d %12.2f %8d%n", totals.getDrugCode(),
+                    name.length() > 25 ? name.substring(0, 22) + "..." : name, totals.getQuantity(),
+                    totals.getRevenue(), totals.getSales());
+        }
+        InputUtils.printSeparator();
+        System.out.println(summary);
+        System.out.println();
+
+        printReportResult(reportService.generateSalesSummaryReport(summary));
+    }
+
+    /**
+     * Generate a sales report for a range of days
+     */
+    private static void generateSalesReport() {
+        InputUtils.printHeader("SALES REPORT");
+
+        LocalDate from = InputUtils.readDate("From day");
+        LocalDate to = InputUtils.readDate("To day");
+        if (to.isBefore(from)) {
+            System.out.println("The end day must not be before the start day.");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        printReportResult(reportService.generateSalesReport(from, to));
+    }
+
+    /**
+     * Show the best-selling drugs of the last few days and save them as a report
+     */
+    private static void showTopSellers() {
+        InputUtils.printHeader("TOP SELLERS");
+
+        int days = InputUtils.readInt("Number of days", 1, SalesService.TOP_SELLER_DAYS);
+        int count = InputUtils.readInt("How many drugs to show", 1, 20);
+
+        List<MySpaceSaving.Counter<String>> topSellers = reportService.getTopSellers(days, count);
+        if (topSellers.isEmpty()) {
+            System.out.println("No sales in the last " + days + " day(s).");
+            InputUtils.waitForEnter();
+            return;
+        }
+
+        System.out.println();
+        System.out.printf("%-5s %-8s %-25s %10s%n", "Rank", "Code", "Name", "Units");
+        InputUtils.printSeparator();
+        int rank = 0;
+        for (MySpaceSaving.Counter<String> counter : topSellers) {
+            Drug drug = drugService.getDrug(counter.getKey());
+            String name = drug != null ? drug.getName() : "(removed)";
+            String units = counter.getError() > 0 ? "~" + counter.getCount() : String.valueOf(counter.getCount());
+            System.out.printf("%-5d %-8s %-25s %10s%n", ++rank, counter.getKey(),
+                    name.length() > 25 ? name.substring(0, 22) + "..." : name, units);
+        }
+        System.out.println();
+
+        printReportResult(reportService.generateTopSellersReport(days, count));
+    }
+
+    /**
+     * Generate every end-of-day report for today in one batch
+     */
+    private static void generateEndOfDayReports() {
+        InputUtils.printHeader("END-OF-DAY REPORTS");
+
+        String[] fileNames = reportService.generateEndOfDayReports(LocalDate.now());
+        int failed = 0;
+        for (String fileName : fileNames) {
+            if (fileName != null) {
+                System.out.println("Report saved to reports/" + fileName);
+            } else {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.out.println(failed + " report(s) could not be generated.");
+        }
+        InputUtils.waitForEnter();
+    }
+
+    /**
+     * Tell the user where a generated report was saved
+     */
+    private static void printReportResult(String fileName) {
+        if (fileName != null) {
+            System.out.println("Report saved to reports/" + fileName);
+        } else {
+            System.out.println("Failed to generate report.");
+        }
         InputUtils.waitForEnter();
     }
 
@@ -687,7 +1634,8 @@ public class Main {
         InputUtils.printSeparator();
         System.out.println("Total Drugs: " + drugService.getDrugCount());
         System.out.println("Low Stock Drugs: " + drugService.getLowStockDrugs().length);
-        System.out.println("Expired Drugs: " + drugService.getExpiredDrugs().length);
+        System.out.println("Expired Drugs: " + stockService.getExpiredDrugs().length);
+        System.out.println("Query Cache: " + drugService.getQueryCacheStats());
         System.out.println();
 
         System.out.println("🛠️  DATA STRUCTURES USED:");
@@ -701,8 +1649,8 @@ public class Main {
 
         System.out.println("🔍 ALGORITHMS IMPLEMENTED:");
         System.out.println("• Merge Sort - Drug name sorting (O(n log n))");
-        System.out.println("• Quick Sort - Price sorting (O(n log n) average)");
-        System.out.println("• Insertion Sort - Stock level sorting (O(n²))");
+        System.out.println("• Radix Sort - Price sorting on integer cents (O(n))");
+        System.out.println("• Counting Sort - Stock level sorting (O(n + k))");
         System.out.println("• Binary Search - Fast drug lookup (O(log n))");
         System.out.println("• Linear Search - Name-based searches (O(n))");
 
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import structures.MyEytzingerIndex;
+import utils.SortUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Benchmark: exact-match lookups in MyEytzingerIndex against SortUtils.binarySearch
+ * over the same sorted keys. Both must find the same keys.
+ *
+ * Usage: java -cp out benchmarks.EytzingerIndexBenchmark [keys] [lookups]
+ */
+public class EytzingerIndexBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int keyCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookupCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Random random = new Random(42);
+
+        String[] keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = randomName(random);
+        }
+        Arrays.sort(keys);
+        Integer[] positions = new Integer[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            positions[i] = i;
+        }
+
+        // Half of the lookups hit an existing key, half miss
+        String[] lookups = new String[lookupCount];
+        for (int i = 0; i < lookupCount; i++) {
+            lookups[i] = i % 2 == 0 ? keys[random.nextInt(keyCount)] : randomName(random);
+        }
+
+        long start = System.nanoTime();
+        MyEytzingerIndex<String, Integer> index = MyEytzingerIndex.forStrings(keys, positions);
+        System.out.printf("Keys: %,d  Lookups: %,d  Index build: %d ms%n", keyCount, lookupCount,
+                (System.nanoTime() - start) / 1_000_000);
+
+        Comparator<String> order = Comparator.naturalOrder();
+        for (int round = 1; round <= ROUNDS; round++) {
+            start = System.nanoTime();
+            int binaryHits = 0;
+            for (String key : lookups) {
+                if (SortUtils.binarySearch(keys, key, order) >= 0) {
+                    binaryHits++;
+                }
+            }
+            long binaryNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int eytzingerHits = 0;
+            for (String key : lookups) {
+                if (index.get(key) != null) {
+                    eytzingerHits++;
+                }
+            }
+            long eytzingerNanos = System.nanoTime() - start;
+
+            if (binaryHits != eytzingerHits) {
+                System.out.println("MISMATCH: binary search found " + binaryHits + ", Eytzinger index found "
+                        + eytzingerHits);
+                System.exit(1);
+            }
+            System.out.printf("Round %d: binarySearch %6.1f ns/op   Eytzinger %6.1f ns/op   (%d hits)%n", round,
+                    binaryNanos / (double) lookupCount, eytzingerNanos / (double) lookupCount, eytzingerHits);
+        }
+    }
+
+    private static String randomName(Random random) {
+        char[] chars = new char[6 + random.nextInt(10)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,171 @@
+package benchmarks;
+
+import models.Cart;
+import models.Drug;
+import services.CustomerService;
+import services.DrugService;
+import services.SalesService;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress test: several threads sell one unit at a time of the same drug until it
+ * runs out. Every unit must be sold exactly once, so the units sold must equal
+ * the starting stock and the final stock must be 0.
+ *
+ * The first part hammers Drug.tryReduce alone. The second part sells through
+ * SalesService.checkout and DrugService.reduceStock while reader threads search,
+ * suggest and sort the catalog, then checks the saved drug file and the sales log.
+ * It writes to data/ under the working directory, so run it from a scratch directory.
+ *
+ * Usage: java -cp out benchmarks.StockContentionBenchmark [threads] [stock] [serviceStock]
+ */
+public class StockContentionBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String DRUG_CODE = "STRESS";
+
+    public static void main(String[] args) throws InterruptedException {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int startingStock = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int serviceStock = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            Drug drug = new Drug("BENCH", "Benchmark Drug", 1.0, startingStock, LocalDate.now().plusYears(1));
+            AtomicLong sold = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            CountDownLatch start = new CountDownLatch(1);
+
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                threads[t] = new Thread(() -> {
+                    long mySold = 0;
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    while (drug.tryReduce(1)) {
+                        mySold++;
+                    }
+                    sold.addAndGet(mySold);
+                    rejected.incrementAndGet(); // Each thread stops on exactly one rejected sale
+                });
+                threads[t].start();
+            }
+
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - startTime;
+
+            if (sold.get() != startingStock || drug.getStockLevel() != 0 || rejected.get() != threadCount) {
+                System.out.println("FAILED: sold " + sold.get() + " of " + startingStock + ", final stock "
+                        + drug.getStockLevel());
+                System.exit(1);
+            }
+            System.out.printf("Round %d: %d threads sold %d units in %d ms (%.0f ops/s)%n", round, threadCount,
+                    sold.get(), elapsed / 1_000_000, sold.get() * 1e9 / elapsed);
+        }
+
+        runServices(threadCount, serviceStock);
+    }
+
+    /**
+     * Sell through checkout (even threads) and reduceStock (odd threads) while as many readers query the catalog
+     */
+    private static void runServices(int threadCount, int stock) throws InterruptedException {
+        DrugService drugService = new DrugService();
+        SalesService salesService = new SalesService(drugService, new CustomerService());
+        if (drugService.getDrug(DRUG_CODE) != null) {
+            drugService.removeDrug(DRUG_CODE);
+        }
+        drugService.addDrug(DRUG_CODE, "Stress Test Tablets", 1.0, stock, LocalDate.now().plusYears(1), 0);
+        int loggedBefore = salesService.getLoggedSaleCount();
+
+        AtomicLong checkedOut = new AtomicLong();
+        AtomicLong reduced = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        AtomicBoolean selling = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] sellers = new Thread[threadCount];
+        Thread[] readers = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            boolean useCheckout = t % 2 == 0;
+            sellers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    while (drugService.getDrug(DRUG_CODE).getStockLevel() > 0) {
+                        if (useCheckout) {
+                            Cart cart = new Cart();
+                            cart.addItem(DRUG_CODE, 1);
+                            if (salesService.checkout(cart) != null) {
+                                checkedOut.incrementAndGet();
+                            }
+                        } else if (drugService.reduceStock(DRUG_CODE, 1)) {
+                            reduced.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    while (selling.get()) {
+                        drugService.searchDrugsByName("stress");
+                        drugService.suggestDrugs("St");
+                        drugService.getLowStockDrugs();
+                        drugService.sortDrugsByStock();
+                        drugService.findDrugByNameAtOrAfter("Stress");
+                        reads.addAndGet(5);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            sellers[t].start();
+            readers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread seller : sellers) {
+            seller.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        selling.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        long sold = checkedOut.get() + reduced.get();
+        int saved = new DrugService().getDrug(DRUG_CODE).getStockLevel();
+        int logged = salesService.getLoggedSaleCount() - loggedBefore;
+        if (failure.get() != null) {
+            System.out.println("FAILED: " + failure.get());
+            failure.get().printStackTrace();
+            System.exit(1);
+        }
+        if (sold != stock || drugService.getDrug(DRUG_CODE).getStockLevel() != 0 || saved != 0
+                || logged != checkedOut.get()) {
+            System.out.println("FAILED: sold " + sold + " of " + stock + ", final stock "
+                    + drugService.getDrug(DRUG_CODE).getStockLevel() + ", saved stock " + saved + ", logged "
+                    + logged + " of " + checkedOut.get() + " checkouts");
+            System.exit(1);
+        }
+        System.out.printf("Services: %d sellers sold %d units (%d checkouts, %d reductions) in %d ms (%.0f ops/s)"
+                + " alongside %d reads%n", threadCount, sold, checkedOut.get(), reduced.get(), elapsed / 1_000_000,
+                sold * 1e9 / elapsed, reads.get());
+        drugService.removeDrug(DRUG_CODE);
+    }
+}
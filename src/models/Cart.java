@@ -0,0 +1,103 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shopping cart holding the lines of one multi-item sale before checkout
+ */
+public class Cart {
+    private String customerId; // Optional, null for walk-in sales
+    private List<Line> lines;
+
+    /**
+     * One drug and the quantity requested
+     */
+    public static class Line {
+        private final String drugCode;
+        private int quantity;
+
+        Line(String drugCode, int quantity) {
+            this.drugCode = drugCode;
+            this.quantity = quantity;
+        }
+
+        public String getDrugCode() {
+            return drugCode;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public String toString() {
+            return drugCode + " x" + quantity;
+        }
+    }
+
+    public Cart() {
+        this(null);
+    }
+
+    public Cart(String customerId) {
+        this.customerId = customerId;
+        this.lines = new ArrayList<>();
+    }
+
+    /**
+     * Add a quantity of a drug; repeated drugs are merged into one line
+     */
+    public boolean addItem(String drugCode, int quantity) {
+        if (drugCode == null || quantity <= 0) {
+            return false;
+        }
+
+        for (Line line : lines) {
+            if (line.drugCode.equals(drugCode)) {
+                line.quantity += quantity;
+                return true;
+            }
+        }
+        lines.add(new Line(drugCode, quantity));
+        return true;
+    }
+
+    /**
+     * Remove a drug from the cart
+     */
+    public boolean removeItem(String drugCode) {
+        return lines.removeIf(line -> line.drugCode.equals(drugCode));
+    }
+
+    // Getters
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    // Setters
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public void clear() {
+        lines.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cart{customer='%s', lines=%s}", customerId, lines);
+    }
+}
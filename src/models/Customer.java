@@ -1,5 +1,6 @@
 package models;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -11,14 +12,17 @@ public class Customer {
     private String contact;
     private String email;
     private String address;
-    private String[] transactionHistory; // Array to store transaction IDs
+    private static final String[] NO_TRANSACTIONS = new String[0];
+    private static final int INITIAL_HISTORY_CAPACITY = 4;
+
+    private String[] transactionHistory; // Transaction IDs, oldest first; grows as needed
     private int transactionCount;
 
     public Customer(String customerId, String name, String contact) {
         this.customerId = customerId;
         this.name = name;
         this.contact = contact;
-        this.transactionHistory = new String[100]; // Max 100 transactions per customer
+        this.transactionHistory = NO_TRANSACTIONS; // Allocated on the first transaction
         this.transactionCount = 0;
     }
 
@@ -49,8 +53,11 @@ public class Customer {
         return address;
     }
 
+    /**
+     * Get all transaction IDs, oldest first
+     */
     public String[] getTransactionHistory() {
-        return transactionHistory;
+        return Arrays.copyOf(transactionHistory, transactionCount);
     }
 
     public int getTransactionCount() {
@@ -80,10 +87,24 @@ public class Customer {
 
     // Transaction history management
     public void addTransaction(String transactionId) {
-        if (transactionCount < transactionHistory.length) {
-            transactionHistory[transactionCount] = transactionId;
-            transactionCount++;
+        if (transactionCount == transactionHistory.length) {
+            int newCapacity = Math.max(INITIAL_HISTORY_CAPACITY, transactionCount * 2);
+            transactionHistory = Arrays.copyOf(transactionHistory, newCapacity);
+        }
+        transactionHistory[transactionCount] = transactionId;
+        transactionCount++;
+    }
+
+    /**
+     * Check if a transaction ID is already in the history
+     */
+    public boolean hasTransaction(String transactionId) {
+        for (int i = transactionCount - 1; i >= 0; i--) {
+            if (transactionHistory[i].equals(transactionId)) {
+                return true;
+            }
         }
+        return false;
     }
 
     public String getLastTransaction() {
@@ -104,6 +125,30 @@ public class Customer {
         return recent;
     }
 
+    /**
+     * Get one page of the history, newest first (page 0 holds the latest transactions)
+     */
+    public String[] getTransactionsNewestFirst(int page, int pageSize) {
+        int start = transactionCount - 1 - page * pageSize; // Index of the newest entry on this page
+        if (page < 0 || pageSize <= 0 || start < 0) {
+            return NO_TRANSACTIONS;
+        }
+
+        int count = Math.min(pageSize, start + 1);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = transactionHistory[start - i];
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of history pages for a page size
+     */
+    public int getTransactionPageCount(int pageSize) {
+        return (transactionCount + pageSize - 1) / pageSize;
+    }
+
     @Override
     public String toString() {
         return String.format("Customer{id='%s', name='%s', contact='%s', email='%s', transactions=%d}",
@@ -1,7 +1,10 @@
 package models;
 
+import structures.MyBiMultiMap;
+
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Drug model representing a medication in the pharmacy inventory
@@ -9,19 +12,19 @@ import java.util.Objects;
 public class Drug {
     private String drugCode;
     private String name;
-    private String[] suppliers; // Array to store multiple suppliers
+    private MyBiMultiMap<String, String> supplierLinks; // Left: supplier name, Right: drug code; the store's once added
     private LocalDate expirationDate;
     private double price;
-    private int stockLevel;
+    private final AtomicInteger stockLevel; // Mutated only through CAS so concurrent sales cannot oversell
     private int minStockThreshold;
 
     public Drug(String drugCode, String name, double price, int stockLevel, LocalDate expirationDate) {
         this.drugCode = drugCode;
         this.name = name;
         this.price = price;
-        this.stockLevel = stockLevel;
+        this.stockLevel = new AtomicInteger(stockLevel);
         this.expirationDate = expirationDate;
-        this.suppliers = new String[5]; // Max 5 suppliers per drug
+        this.supplierLinks = new MyBiMultiMap<>();
         this.minStockThreshold = 10; // Default threshold
     }
 
@@ -34,10 +37,22 @@ public class Drug {
         return name;
     }
 
+    /**
+     * Supplier names in the order they were linked, read from the supplier-drug relation
+     */
     public String[] getSuppliers() {
+        Object[] lefts = supplierLinks.getLefts(drugCode);
+        String[] suppliers = new String[lefts.length];
+        for (int i = 0; i < lefts.length; i++) {
+            suppliers[i] = (String) lefts[i];
+        }
         return suppliers;
     }
 
+    public int getSupplierCount() {
+        return supplierLinks.countLefts(drugCode);
+    }
+
     public LocalDate getExpirationDate() {
         return expirationDate;
     }
@@ -46,8 +61,15 @@ public class Drug {
         return price;
     }
 
+    /**
+     * Price rounded to whole cents, for integer-keyed sorting and aggregation
+     */
+    public long getPriceInCents() {
+        return Math.round(price * 100);
+    }
+
     public int getStockLevel() {
-        return stockLevel;
+        return stockLevel.get();
     }
 
     public int getMinStockThreshold() {
@@ -56,6 +78,10 @@ public class Drug {
 
     // Setters
     public void setDrugCode(String drugCode) {
+        for (Object supplier : supplierLinks.getLefts(this.drugCode)) {
+            supplierLinks.remove((String) supplier, this.drugCode);
+            supplierLinks.put((String) supplier, drugCode);
+        }
         this.drugCode = drugCode;
     }
 
@@ -72,7 +98,16 @@ public class Drug {
     }
 
     public void setStockLevel(int stockLevel) {
-        this.stockLevel = stockLevel;
+        this.stockLevel.set(stockLevel);
+    }
+
+    /**
+     * Atomically replace the stock level
+     *
+     * @return the level it replaced
+     */
+    public int exchangeStockLevel(int stockLevel) {
+        return this.stockLevel.getAndSet(stockLevel);
     }
 
     public void setMinStockThreshold(int minStockThreshold) {
@@ -80,48 +115,67 @@ public class Drug {
     }
 
     // Supplier management
+    /**
+     * Move this drug's supplier links into the catalog's relation, replacing any
+     * links it held for this code, and read and write them there from now on
+     */
+    public void attachSupplierLinks(MyBiMultiMap<String, String> links) {
+        if (links == supplierLinks) {
+            return;
+        }
+        links.removeRight(drugCode);
+        for (Object supplier : supplierLinks.getLefts(drugCode)) {
+            links.put((String) supplier, drugCode);
+        }
+        supplierLinks = links;
+    }
+
     public void addSupplier(String supplier) {
-        for (int i = 0; i < suppliers.length; i++) {
-            if (suppliers[i] == null) {
-                suppliers[i] = supplier;
-                return;
-            }
+        if (supplier != null) {
+            supplierLinks.put(supplier, drugCode);
         }
     }
 
     public void removeSupplier(String supplier) {
-        for (int i = 0; i < suppliers.length; i++) {
-            if (Objects.equals(suppliers[i], supplier)) {
-                suppliers[i] = null;
-                return;
-            }
-        }
+        supplierLinks.remove(supplier, drugCode);
     }
 
     public boolean hasSupplier(String supplier) {
-        for (String s : suppliers) {
-            if (Objects.equals(s, supplier)) {
-                return true;
-            }
-        }
-        return false;
+        return supplierLinks.contains(supplier, drugCode);
     }
 
     // Stock operations
     public void addStock(int quantity) {
-        this.stockLevel += quantity;
+        stockLevel.addAndGet(quantity);
     }
 
     public boolean reduceStock(int quantity) {
-        if (stockLevel >= quantity) {
-            stockLevel -= quantity;
-            return true;
+        return tryReduce(quantity);
+    }
+
+    /**
+     * Atomically take quantity units if that many are in stock.
+     * The check and the decrement happen in one compare-and-set, so two
+     * concurrent sales of the last units cannot both succeed.
+     * Taking 0 units always succeeds; a negative quantity is refused.
+     */
+    public boolean tryReduce(int quantity) {
+        if (quantity <= 0) {
+            return quantity == 0;
+        }
+        while (true) {
+            int current = stockLevel.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (stockLevel.compareAndSet(current, current - quantity)) {
+                return true;
+            }
         }
-        return false;
     }
 
     public boolean isLowStock() {
-        return stockLevel <= minStockThreshold;
+        return stockLevel.get() <= minStockThreshold;
     }
 
     public boolean isExpired() {
@@ -130,17 +184,8 @@ public class Drug {
 
     @Override
     public String toString() {
-        StringBuilder supplierList = new StringBuilder();
-        for (String supplier : suppliers) {
-            if (supplier != null) {
-                if (supplierList.length() > 0)
-                    supplierList.append(", ");
-                supplierList.append(supplier);
-            }
-        }
-
         return String.format("Drug{code='%s', name='%s', price=%.2f, stock=%d, expiry=%s, suppliers=[%s]}",
-                drugCode, name, price, stockLevel, expirationDate, supplierList.toString());
+                drugCode, name, price, stockLevel.get(), expirationDate, String.join(", ", getSuppliers()));
     }
 
     @Override
@@ -0,0 +1,117 @@
+package models;
+
+import structures.MyHashMap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sales totals for a period (a day, month, year or range of days), overall and per drug
+ */
+public class SalesSummary {
+
+    /**
+     * Totals of one drug within the period
+     */
+    public static class DrugTotals {
+        private final String drugCode;
+        private long quantity;
+        private long revenueCents;
+        private long sales;
+
+        DrugTotals(String drugCode) {
+            this.drugCode = drugCode;
+        }
+
+        public String getDrugCode() {
+            return drugCode;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public long getRevenueCents() {
+            return revenueCents;
+        }
+
+        public double getRevenue() {
+            return revenueCents / 100.0;
+        }
+
+        public long getSales() {
+            return sales;
+        }
+    }
+
+    private final String period;
+    private MyHashMap<String, DrugTotals> byDrug; // Key: drugCode
+    private long quantity;
+    private long revenueCents;
+    private long sales;
+
+    public SalesSummary(String period) {
+        this.period = period;
+        this.byDrug = new MyHashMap<>();
+    }
+
+    /**
+     * Add pre-aggregated totals of one drug
+     */
+    public void add(String drugCode, long quantity, long revenueCents, long sales) {
+        DrugTotals totals = byDrug.get(drugCode);
+        if (totals == null) {
+            totals = new DrugTotals(drugCode);
+            byDrug.put(drugCode, totals);
+        }
+        totals.quantity += quantity;
+        totals.revenueCents += revenueCents;
+        totals.sales += sales;
+        this.quantity += quantity;
+        this.revenueCents += revenueCents;
+        this.sales += sales;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    /**
+     * Get the per-drug totals, highest revenue first
+     */
+    public DrugTotals[] getDrugTotals() {
+        Object[] values = byDrug.values();
+        DrugTotals[] result = new DrugTotals[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (DrugTotals) values[i];
+        }
+        Arrays.sort(result, Comparator.comparingLong(DrugTotals::getRevenueCents).reversed()
+                .thenComparing(DrugTotals::getDrugCode));
+        return result;
+    }
+
+    public int getDrugCount() {
+        return byDrug.size();
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    public double getRevenue() {
+        return revenueCents / 100.0;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d sales, %d units, $%.2f", period, sales, quantity, getRevenue());
+    }
+}
@@ -0,0 +1,84 @@
+package models;
+
+/**
+ * A single line of a batch stock change (e.g. one line of a delivery note)
+ */
+public class StockAdjustment {
+
+    /**
+     * How the quantity is applied to the current stock level
+     */
+    public enum Type {
+        ADD, REDUCE, SET
+    }
+
+    private String drugCode;
+    private Type type;
+    private int quantity;
+
+    public StockAdjustment(String drugCode, Type type, int quantity) {
+        this.drugCode = drugCode;
+        this.type = type;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Outcome of one adjustment line after a batch has been applied
+     */
+    public static class Result {
+        private final StockAdjustment adjustment;
+        private final boolean applied;
+        private final int resultingStock;
+        private final String message;
+
+        public Result(StockAdjustment adjustment, boolean applied, int resultingStock, String message) {
+            this.adjustment = adjustment;
+            this.applied = applied;
+            this.resultingStock = resultingStock;
+            this.message = message;
+        }
+
+        public StockAdjustment getAdjustment() {
+            return adjustment;
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+
+        /**
+         * Stock level of the drug right after this line, or -1 if the drug is unknown
+         */
+        public int getResultingStock() {
+            return resultingStock;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %d: %s", adjustment.getDrugCode(), adjustment.getType(),
+                    adjustment.getQuantity(), message);
+        }
+    }
+
+    // Getters
+    public String getDrugCode() {
+        return drugCode;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StockAdjustment{code='%s', type=%s, quantity=%d}", drugCode, type, quantity);
+    }
+}
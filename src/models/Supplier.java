@@ -12,8 +12,6 @@ public class Supplier {
     private String email;
     private String location;
     private int deliveryTurnaroundDays;
-    private String[] suppliedDrugs; // Array to store drug codes
-    private int drugCount;
 
     public Supplier(String supplierId, String name, String contact, String location, int deliveryTurnaroundDays) {
         this.supplierId = supplierId;
@@ -21,8 +19,6 @@ public class Supplier {
         this.contact = contact;
         this.location = location;
         this.deliveryTurnaroundDays = deliveryTurnaroundDays;
-        this.suppliedDrugs = new String[50]; // Max 50 drugs per supplier
-        this.drugCount = 0;
     }
 
     // Getters
@@ -50,14 +46,6 @@ public class Supplier {
         return deliveryTurnaroundDays;
     }
 
-    public String[] getSuppliedDrugs() {
-        return suppliedDrugs;
-    }
-
-    public int getDrugCount() {
-        return drugCount;
-    }
-
     // Setters
     public void setSupplierId(String supplierId) {
         this.supplierId = supplierId;
@@ -83,41 +71,10 @@ public class Supplier {
         this.deliveryTurnaroundDays = deliveryTurnaroundDays;
     }
 
-    // Drug management
-    public void addDrug(String drugCode) {
-        if (drugCount < suppliedDrugs.length && !suppliesDrug(drugCode)) {
-            suppliedDrugs[drugCount] = drugCode;
-            drugCount++;
-        }
-    }
-
-    public void removeDrug(String drugCode) {
-        for (int i = 0; i < drugCount; i++) {
-            if (Objects.equals(suppliedDrugs[i], drugCode)) {
-                // Shift remaining elements
-                for (int j = i; j < drugCount - 1; j++) {
-                    suppliedDrugs[j] = suppliedDrugs[j + 1];
-                }
-                suppliedDrugs[drugCount - 1] = null;
-                drugCount--;
-                return;
-            }
-        }
-    }
-
-    public boolean suppliesDrug(String drugCode) {
-        for (int i = 0; i < drugCount; i++) {
-            if (Objects.equals(suppliedDrugs[i], drugCode)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     @Override
     public String toString() {
-        return String.format("Supplier{id='%s', name='%s', location='%s', turnaround=%d days, drugs=%d}",
-                supplierId, name, location, deliveryTurnaroundDays, drugCount);
+        return String.format("Supplier{id='%s', name='%s', location='%s', turnaround=%d days}",
+                supplierId, name, location, deliveryTurnaroundDays);
     }
 
     @Override
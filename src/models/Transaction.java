@@ -8,6 +8,9 @@ import java.util.Objects;
  * Transaction model representing a purchase transaction
  */
 public class Transaction {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     private String transactionId;
     private String drugCode;
     private String customerId;
@@ -107,11 +110,11 @@ public class Transaction {
 
     // Utility methods
     public String getFormattedTimestamp() {
-        return timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        return timestamp.format(TIMESTAMP_FORMAT);
     }
 
     public String getDateOnly() {
-        return timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        return timestamp.format(DATE_FORMAT);
     }
 
     public boolean isToday() {
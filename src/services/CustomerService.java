@@ -1,4 +1,129 @@
 package services;
 
+import models.Customer;
+import storage.CustomerStore;
+
+import java.util.List;
+
+/**
+ * Service class for customer management operations
+ */
 public class CustomerService {
+    private CustomerStore customerStore;
+
+    public CustomerService() {
+        this.customerStore = new CustomerStore();
+    }
+
+    /**
+     * Register a new customer under the next free ID (C001, C002, ...)
+     *
+     * @return the new customer, or null if it could not be saved
+     */
+    public Customer addCustomer(String name, String contact) {
+        Customer customer = new Customer(generateCustomerId(), name, contact);
+        if (customerStore.addCustomer(customer)) {
+            System.out.println("Customer added successfully: " + customer.getCustomerId());
+            return customer;
+        } else {
+            System.out.println("Failed to add customer.");
+            return null;
+        }
+    }
+
+    private String generateCustomerId() {
+        int number = customerStore.getCustomerCount() + 1;
+        while (customerStore.customerExists(String.format("C%03d", number))) {
+            number++;
+        }
+        return String.format("C%03d", number);
+    }
+
+    /**
+     * Update a customer's name and contact
+     */
+    public boolean updateCustomer(String customerId, String name, String contact) {
+        Customer customer = customerStore.getCustomer(customerId);
+        if (customer == null) {
+            System.out.println("Customer with ID " + customerId + " not found.");
+            return false;
+        }
+
+        customer.setName(name);
+        customer.setContact(contact);
+        return customerStore.updateCustomer(customer);
+    }
+
+    /**
+     * Remove a customer
+     */
+    public boolean removeCustomer(String customerId) {
+        if (!customerStore.removeCustomer(customerId)) {
+            System.out.println("Customer with ID " + customerId + " not found.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get customer by ID
+     */
+    public Customer getCustomer(String customerId) {
+        return customerStore.getCustomer(customerId);
+    }
+
+    /**
+     * Get all customers
+     */
+    public Customer[] getAllCustomers() {
+        return customerStore.getAllCustomers();
+    }
+
+    /**
+     * Check if a customer is registered
+     */
+    public boolean customerExists(String customerId) {
+        return customerStore.customerExists(customerId);
+    }
+
+    /**
+     * Search customers by name: every word of the query must start a word of the name
+     * (case-insensitive, e.g. "kof as" finds "Kofi Asante")
+     */
+    public Customer[] searchCustomersByName(String name) {
+        return customerStore.searchByName(name);
+    }
+
+    /**
+     * Find customers by phone number, ignoring formatting such as spaces, dashes or brackets
+     */
+    public Customer[] findCustomersByPhone(String phone) {
+        return customerStore.findByPhone(phone);
+    }
+
+    /**
+     * Record the transactions of one sale in the customer's history with a single save
+     */
+    public boolean recordTransactions(String customerId, List<String> transactionIds) {
+        if (!customerStore.addTransactions(customerId, transactionIds)) {
+            System.out.println("Could not record transactions for customer " + customerId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get one page of a customer's transaction IDs, newest first
+     */
+    public String[] getTransactionHistory(String customerId, int page, int pageSize) {
+        Customer customer = customerStore.getCustomer(customerId);
+        return customer != null ? customer.getTransactionsNewestFirst(page, pageSize) : new String[0];
+    }
+
+    /**
+     * Get customer count
+     */
+    public int getCustomerCount() {
+        return customerStore.getCustomerCount();
+    }
 }
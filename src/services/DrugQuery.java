@@ -0,0 +1,124 @@
+package services;
+
+import java.time.LocalDate;
+
+/**
+ * Composite drug filter combining optional predicates with AND semantics.
+ * Built fluently and executed by DrugService.queryDrugs, which picks the
+ * most selective index for the set predicates.
+ */
+public class DrugQuery {
+    private String supplier;
+    private String nameContains;
+    private boolean hasPriceRange;
+    private long minPriceCents;
+    private long maxPriceCents;
+    private LocalDate expiringBefore;
+    private boolean hasStockLimit;
+    private int stockBelow;
+
+    /**
+     * Only drugs supplied by the given supplier
+     */
+    public DrugQuery withSupplier(String supplier) {
+        this.supplier = supplier;
+        return this;
+    }
+
+    /**
+     * Only drugs whose name contains the text (case-insensitive)
+     */
+    public DrugQuery withNameContaining(String text) {
+        this.nameContains = text;
+        return this;
+    }
+
+    /**
+     * Only drugs priced between min and max, inclusive
+     */
+    public DrugQuery withPriceBetween(double minPrice, double maxPrice) {
+        this.hasPriceRange = true;
+        this.minPriceCents = Math.round(minPrice * 100);
+        this.maxPriceCents = Math.round(maxPrice * 100);
+        return this;
+    }
+
+    /**
+     * Only drugs whose expiration date is strictly before the given date
+     */
+    public DrugQuery withExpiryBefore(LocalDate date) {
+        this.expiringBefore = date;
+        return this;
+    }
+
+    /**
+     * Only drugs whose stock level is strictly below the threshold
+     */
+    public DrugQuery withStockBelow(int threshold) {
+        this.hasStockLimit = true;
+        this.stockBelow = threshold;
+        return this;
+    }
+
+    // Getters
+    public String getSupplier() {
+        return supplier;
+    }
+
+    public String getNameContains() {
+        return nameContains;
+    }
+
+    public boolean hasPriceRange() {
+        return hasPriceRange;
+    }
+
+    public long getMinPriceCents() {
+        return minPriceCents;
+    }
+
+    public long getMaxPriceCents() {
+        return maxPriceCents;
+    }
+
+    public LocalDate getExpiringBefore() {
+        return expiringBefore;
+    }
+
+    public boolean hasStockLimit() {
+        return hasStockLimit;
+    }
+
+    public int getStockBelow() {
+        return stockBelow;
+    }
+
+    /**
+     * Check if no predicate has been set (matches every drug)
+     */
+    public boolean isEmpty() {
+        return supplier == null && nameContains == null && !hasPriceRange
+                && expiringBefore == null && !hasStockLimit;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DrugQuery{");
+        if (supplier != null) {
+            sb.append("supplier='").append(supplier).append("' ");
+        }
+        if (nameContains != null) {
+            sb.append("name~'").append(nameContains).append("' ");
+        }
+        if (hasPriceRange) {
+            sb.append(String.format("price=[%.2f, %.2f] ", minPriceCents / 100.0, maxPriceCents / 100.0));
+        }
+        if (expiringBefore != null) {
+            sb.append("expiry<").append(expiringBefore).append(" ");
+        }
+        if (hasStockLimit) {
+            sb.append("stock<").append(stockBelow).append(" ");
+        }
+        return sb.toString().trim() + "}";
+    }
+}
@@ -1,22 +1,281 @@
 package services;
 
 import models.Drug;
+import models.StockAdjustment;
 import storage.DrugStore;
+import structures.MyBKTree;
+import structures.MyBiMultiMap;
+import structures.MyCache;
+import structures.MyEytzingerIndex;
+import structures.MyHashMap;
+import structures.MyNGramIndex;
+import structures.MyTrie;
 import utils.SortUtils;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Service class for drug management operations
  */
 public class DrugService {
-    private DrugStore drugStore;
+    private static final Comparator<Drug> NAME_ORDER = (d1, d2) -> d1.getName().compareToIgnoreCase(d2.getName());
+    private static final Comparator<Drug> EXPIRY_ORDER = (d1, d2) -> d1.getExpirationDate()
+            .compareTo(d2.getExpirationDate());
+
+    private DrugStore drugStore; // Its lock also guards the views, indexes and cache below
+
+    // Sorted views are shared between calls and only rebuilt after DrugStore reports a mutation
+    private final SortedView byName = new SortedView();
+    private final SortedView byPrice = new SortedView();
+    private final SortedView byStock = new SortedView();
+    private final SortedView byExpiry = new SortedView();
+
+    // Eytzinger-ordered lookup indexes over the sorted name and code views
+    private MyEytzingerIndex<String, Drug> nameIndex;
+    private long nameIndexVersion = -1;
+    private MyEytzingerIndex<String, Drug> codeIndex;
+    private long codeIndexVersion = -1;
+
+    /**
+     * A sorted snapshot of the catalog tagged with the store version it was built from
+     */
+    private static class SortedView {
+        Drug[] drugs;
+        long version = -1;
+
+        boolean isStale(DrugStore store) {
+            return drugs == null || version != store.getVersion();
+        }
+
+        void refresh(Drug[] sorted, DrugStore store) {
+            this.drugs = sorted;
+            this.version = store.getVersion();
+        }
+    }
+
+    // Trigram index over drug names, kept in sync through DrugStore change events
+    private final MyNGramIndex<Drug> nameSearchIndex = new MyNGramIndex<>();
+
+    // Autocomplete tries over normalized names and codes, ranked by stock level
+    private static final int SUGGESTION_LIMIT = 5;
+    private final MyTrie<Drug> nameTrie = new MyTrie<>(SUGGESTION_LIMIT);
+    private final MyTrie<Drug> codeTrie = new MyTrie<>(SUGGESTION_LIMIT);
+
+    // BK-tree over the words of each drug name for "did you mean" suggestions
+    private static final int MIN_FUZZY_WORD_LENGTH = 3;
+    private final MyBKTree<Drug> nameWordTree = new MyBKTree<>();
+
+    // Memoized name and low-stock query results, invalidated per affected query
+    private static final int QUERY_CACHE_CAPACITY = 256;
+    private static final String NAME_QUERY = "name:";
+    private static final String LOW_STOCK_QUERY = "lowstock";
+    private final MyCache<String, Drug[]> queryCache = new MyCache<>(QUERY_CACHE_CAPACITY,
+            MyCache.EvictionPolicy.TINY_LFU);
+
+    // Composite queries: bit positions are ordinals in the name-sorted view
+    private static final int VERIFY_RATIO = 8; // Check survivors directly when the next set is this much larger
+    private MyHashMap<String, Integer> catalogOrdinals;
+    private long queryIndexVersion = -1;
+
+    /**
+     * Candidate set of one query predicate: either a contiguous range of a
+     * sorted view or a ready-made bitmap, plus the predicate itself for
+     * verifying survivors of a smaller set
+     */
+    private static class Candidates {
+        final int count;
+        final Predicate<Drug> test;
+        private final Drug[] drugs;
+        private final int from;
+        private final int to;
+        private final BitSet bitmap;
+
+        Candidates(Drug[] drugs, int from, int to, Predicate<Drug> test) {
+            this.count = to - from;
+            this.test = test;
+            this.drugs = drugs;
+            this.from = from;
+            this.to = to;
+            this.bitmap = null;
+        }
+
+        Candidates(BitSet bitmap, Predicate<Drug> test) {
+            this.count = bitmap.cardinality();
+            this.test = test;
+            this.drugs = null;
+            this.from = 0;
+            this.to = 0;
+            this.bitmap = bitmap;
+        }
+
+        BitSet toBitmap(MyHashMap<String, Integer> ordinals) {
+            if (bitmap != null) {
+                return (BitSet) bitmap.clone();
+            }
+            BitSet result = new BitSet();
+            for (int i = from; i < to; i++) {
+                Integer ordinal = ordinals.get(drugs[i].getDrugCode());
+                if (ordinal != null) {
+                    result.set(ordinal);
+                }
+            }
+            return result;
+        }
+    }
+
+    // Query-relevant state of each drug as last indexed, to diff against after in-place updates
+    private final MyHashMap<String, IndexedState> indexedStates = new MyHashMap<>();
+
+    /**
+     * The attributes cached queries depend on, captured when a drug is (re)indexed
+     */
+    private static class IndexedState {
+        final String normalizedName;
+        final boolean lowStock;
+
+        IndexedState(Drug drug) {
+            this.normalizedName = MyNGramIndex.normalize(drug.getName());
+            this.lowStock = drug.isLowStock();
+        }
+    }
 
     public DrugService() {
         this.drugStore = new DrugStore();
+
+        for (Drug drug : drugStore.getAllDrugs()) {
+            indexDrug(drug);
+        }
+        drugStore.addChangeListener(new DrugStore.DrugChangeListener() {
+            @Override
+            public void onDrugAdded(Drug drug) {
+                invalidateQueries(null, new IndexedState(drug));
+                indexDrug(drug);
+            }
+
+            @Override
+            public void onDrugUpdated(Drug drug) {
+                reindexDrug(drug);
+            }
+
+            @Override
+            public void onDrugRemoved(Drug drug) {
+                unindexDrug(drug);
+            }
+        });
+    }
+
+    /**
+     * Add a drug to the name search index, autocomplete tries and fuzzy index
+     */
+    private void indexDrug(Drug drug) {
+        IndexedState state = new IndexedState(drug);
+        indexedStates.put(drug.getDrugCode(), state);
+        nameSearchIndex.put(drug.getDrugCode(), drug.getName(), drug);
+        nameTrie.put(state.normalizedName, drug, drug.getStockLevel());
+        codeTrie.put(normalizeCode(drug.getDrugCode()), drug, drug.getStockLevel());
+        for (String word : nameWords(state.normalizedName)) {
+            nameWordTree.add(word, drug);
+        }
+    }
+
+    /**
+     * Bring the indexes up to date after a drug was changed in place
+     */
+    private void reindexDrug(Drug drug) {
+        IndexedState previous = indexedStates.get(drug.getDrugCode());
+        IndexedState current = new IndexedState(drug);
+        invalidateQueries(previous, current);
+        indexedStates.put(drug.getDrugCode(), current);
+
+        // Only re-index the name when it actually changed
+        if (previous != null && !previous.normalizedName.equals(current.normalizedName)) {
+            nameTrie.remove(previous.normalizedName, drug);
+            for (String word : nameWords(previous.normalizedName)) {
+                nameWordTree.remove(word, drug);
+            }
+            nameSearchIndex.put(drug.getDrugCode(), drug.getName(), drug);
+            for (String word : nameWords(current.normalizedName)) {
+                nameWordTree.add(word, drug);
+            }
+        }
+        // Refresh the ranking score (stock may have changed)
+        nameTrie.put(current.normalizedName, drug, drug.getStockLevel());
+        codeTrie.put(normalizeCode(drug.getDrugCode()), drug, drug.getStockLevel());
+    }
+
+    /**
+     * Drop a removed drug from every index
+     */
+    private void unindexDrug(Drug drug) {
+        IndexedState previous = indexedStates.remove(drug.getDrugCode());
+        if (previous != null) {
+            invalidateQueries(previous, null);
+            nameTrie.remove(previous.normalizedName, drug);
+            for (String word : nameWords(previous.normalizedName)) {
+                nameWordTree.remove(word, drug);
+            }
+        }
+        codeTrie.remove(normalizeCode(drug.getDrugCode()), drug);
+        nameSearchIndex.remove(drug.getDrugCode());
+    }
+
+    /**
+     * Invalidate only the cached queries whose result set can change when a drug
+     * goes from the previous state to the current one (either may be null)
+     */
+    private void invalidateQueries(IndexedState previous, IndexedState current) {
+        if (queryCache.isEmpty()) {
+            return;
+        }
+
+        String oldName = previous != null ? previous.normalizedName : null;
+        String newName = current != null ? current.normalizedName : null;
+        if (oldName == null || !oldName.equals(newName)) {
+            queryCache.invalidateIf(key -> key.startsWith(NAME_QUERY)
+                    && ((oldName != null && oldName.contains(key.substring(NAME_QUERY.length())))
+                            || (newName != null && newName.contains(key.substring(NAME_QUERY.length())))));
+        }
+
+        // Cached arrays hold the live Drug objects, so only membership changes matter
+        boolean wasLow = previous != null && previous.lowStock;
+        boolean isLow = current != null && current.lowStock;
+        if (wasLow != isLow) {
+            queryCache.invalidate(LOW_STOCK_QUERY);
+        }
+    }
+
+    /**
+     * Get hit/miss/eviction statistics of the query result cache
+     */
+    public String getQueryCacheStats() {
+        synchronized (drugStore) {
+            return queryCache.toString();
+        }
+    }
+
+    /**
+     * Split a normalized name into distinct alphabetic words long enough to be worth fuzzy matching
+     */
+    private static List<String> nameWords(String normalizedName) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalizedName.split("[^\\p{L}]+")) {
+            if (word.length() >= MIN_FUZZY_WORD_LENGTH && !words.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalizeCode(String drugCode) {
+        return drugCode.toUpperCase(Locale.ROOT);
     }
 
     /**
@@ -24,20 +283,22 @@ public class DrugService {
      */
     public boolean addDrug(String drugCode, String name, double price, int stockLevel,
             LocalDate expirationDate, int minThreshold) {
-        if (drugStore.drugExists(drugCode)) {
-            System.out.println("Drug with code " + drugCode + " already exists.");
-            return false;
-        }
+        synchronized (drugStore) {
+            if (drugStore.drugExists(drugCode)) {
+                System.out.println("Drug with code " + drugCode + " already exists.");
+                return false;
+            }
 
-        Drug drug = new Drug(drugCode, name, price, stockLevel, expirationDate);
-        drug.setMinStockThreshold(minThreshold);
+            Drug drug = new Drug(drugCode, name, price, stockLevel, expirationDate);
+            drug.setMinStockThreshold(minThreshold);
 
-        if (drugStore.addDrug(drug)) {
-            System.out.println("Drug added successfully: " + drug.getName());
-            return true;
-        } else {
-            System.out.println("Failed to add drug.");
-            return false;
+            if (drugStore.addDrug(drug)) {
+                System.out.println("Drug added successfully: " + drug.getName());
+                return true;
+            } else {
+                System.out.println("Failed to add drug.");
+                return false;
+            }
         }
     }
 
@@ -46,24 +307,26 @@ public class DrugService {
      */
     public boolean updateDrug(String drugCode, String name, double price, int stockLevel,
             LocalDate expirationDate, int minThreshold) {
-        Drug drug = drugStore.getDrug(drugCode);
-        if (drug == null) {
-            System.out.println("Drug with code " + drugCode + " not found.");
-            return false;
-        }
-
-        drug.setName(name);
-        drug.setPrice(price);
-        drug.setStockLevel(stockLevel);
-        drug.setExpirationDate(expirationDate);
-        drug.setMinStockThreshold(minThreshold);
+        synchronized (drugStore) {
+            Drug drug = drugStore.getDrug(drugCode);
+            if (drug == null) {
+                System.out.println("Drug with code " + drugCode + " not found.");
+                return false;
+            }
 
-        if (drugStore.updateDrug(drug)) {
-            System.out.println("Drug updated successfully: " + drug.getName());
-            return true;
-        } else {
-            System.out.println("Failed to update drug.");
-            return false;
+            drug.setName(name);
+            drug.setPrice(price);
+            drug.setStockLevel(stockLevel);
+            drug.setExpirationDate(expirationDate);
+            drug.setMinStockThreshold(minThreshold);
+
+            if (drugStore.updateDrug(drug)) {
+                System.out.println("Drug updated successfully: " + drug.getName());
+                return true;
+            } else {
+                System.out.println("Failed to update drug.");
+                return false;
+            }
         }
     }
 
@@ -71,18 +334,20 @@ public class DrugService {
      * Remove a drug
      */
     public boolean removeDrug(String drugCode) {
-        Drug drug = drugStore.getDrug(drugCode);
-        if (drug == null) {
-            System.out.println("Drug with code " + drugCode + " not found.");
-            return false;
-        }
+        synchronized (drugStore) {
+            Drug drug = drugStore.getDrug(drugCode);
+            if (drug == null) {
+                System.out.println("Drug with code " + drugCode + " not found.");
+                return false;
+            }
 
-        if (drugStore.removeDrug(drugCode)) {
-            System.out.println("Drug removed successfully: " + drug.getName());
-            return true;
-        } else {
-            System.out.println("Failed to remove drug.");
-            return false;
+            if (drugStore.removeDrug(drugCode)) {
+                System.out.println("Drug removed successfully: " + drug.getName());
+                return true;
+            } else {
+                System.out.println("Failed to remove drug.");
+                return false;
+            }
         }
     }
 
@@ -101,88 +366,210 @@ public class DrugService {
     }
 
     /**
-     * Search drugs by name (linear search)
+     * Search drugs by name substring (case-insensitive) using the trigram index
      */
     public Drug[] searchDrugsByName(String name) {
-        Drug[] allDrugs = drugStore.getAllDrugs();
-        List<Drug> matchingDrugs = new ArrayList<>();
+        synchronized (drugStore) {
+            String key = NAME_QUERY + MyNGramIndex.normalize(name);
+            Drug[] cached = queryCache.get(key);
+            if (cached == null) {
+                cached = nameSearchIndex.search(name).toArray(new Drug[0]);
+                queryCache.put(key, cached);
+            }
+            return cached.clone();
+        }
+    }
 
-        for (Drug drug : allDrugs) {
-            if (drug.getName().toLowerCase().contains(name.toLowerCase())) {
-                matchingDrugs.add(drug);
+    /**
+     * Suggest drugs whose name or code starts with the prefix, highest stock first
+     */
+    public Drug[] suggestDrugs(String prefix) {
+        synchronized (drugStore) {
+            List<Drug> byName = nameTrie.complete(MyNGramIndex.normalize(prefix), SUGGESTION_LIMIT);
+            List<Drug> byCode = codeTrie.complete(normalizeCode(prefix), SUGGESTION_LIMIT);
+
+            // Merge both ranked lists, dropping drugs matched through name and code
+            List<Drug> suggestions = new ArrayList<>();
+            int i = 0, j = 0;
+            while (suggestions.size() < SUGGESTION_LIMIT && (i < byName.size() || j < byCode.size())) {
+                Drug next;
+                if (j >= byCode.size() || (i < byName.size()
+                        && byName.get(i).getStockLevel() >= byCode.get(j).getStockLevel())) {
+                    next = byName.get(i++);
+                } else {
+                    next = byCode.get(j++);
+                }
+                if (!suggestions.contains(next)) {
+                    suggestions.add(next);
+                }
             }
+
+            return suggestions.toArray(new Drug[0]);
         }
+    }
 
-        return matchingDrugs.toArray(new Drug[0]);
+    /**
+     * Suggest drugs whose name words are within a small edit distance of the query words,
+     * closest first (e.g. "Paracetmol" suggests "Paracetamol 500mg")
+     */
+    public Drug[] suggestSimilarDrugs(String query) {
+        synchronized (drugStore) {
+            List<MyBKTree.Match<Drug>> matches = new ArrayList<>();
+            for (String word : nameWords(MyNGramIndex.normalize(query))) {
+                int maxDistance = word.length() <= 4 ? 1 : 2;
+                matches.addAll(nameWordTree.search(word, maxDistance));
+            }
+            matches.sort(Comparator.comparingInt(MyBKTree.Match::getDistance));
+
+            List<Drug> suggestions = new ArrayList<>();
+            for (MyBKTree.Match<Drug> match : matches) {
+                if (suggestions.size() == SUGGESTION_LIMIT) {
+                    break;
+                }
+                if (!suggestions.contains(match.getValue())) {
+                    suggestions.add(match.getValue());
+                }
+            }
+            return suggestions.toArray(new Drug[0]);
+        }
     }
 
     /**
-     * Search drug by code (direct lookup - O(1) with HashMap)
+     * Suggest drugs whose code starts with the prefix, highest stock first
      */
-    public Drug searchDrugByCode(String drugCode) {
-        return drugStore.getDrug(drugCode);
+    public Drug[] suggestDrugsByCode(String prefix) {
+        synchronized (drugStore) {
+            return codeTrie.complete(normalizeCode(prefix), SUGGESTION_LIMIT).toArray(new Drug[0]);
+        }
     }
 
     /**
-     * Search drugs by supplier
+     * Search drug by code (direct lookup - O(1) with HashMap)
      */
-    public Drug[] searchDrugsBySupplier(String supplier) {
-        return drugStore.getDrugsBySupplier(supplier);
+    public Drug searchDrugByCode(String drugCode) {
+        return drugStore.getDrug(drugCode);
     }
 
     /**
      * Sort drugs alphabetically by name using merge sort
      */
     public Drug[] sortDrugsByName() {
-        Drug[] drugs = drugStore.getAllDrugs();
-
-        Comparator<Drug> nameComparator = (d1, d2) -> d1.getName().compareToIgnoreCase(d2.getName());
-        SortUtils.mergeSort(drugs, nameComparator);
-
-        return drugs;
+        synchronized (drugStore) {
+            return sortedByName().clone();
+        }
     }
 
     /**
-     * Sort drugs by price using quick sort
+     * Sort drugs by price using radix sort on integer cents
      */
     public Drug[] sortDrugsByPrice() {
-        Drug[] drugs = drugStore.getAllDrugs();
-
-        Comparator<Drug> priceComparator = (d1, d2) -> Double.compare(d1.getPrice(), d2.getPrice());
-        SortUtils.quickSort(drugs, priceComparator);
-
-        return drugs;
+        synchronized (drugStore) {
+            return sortedByPrice().clone();
+        }
     }
 
     /**
-     * Sort drugs by stock level using insertion sort
+     * Sort drugs by stock level using counting sort
      */
     public Drug[] sortDrugsByStock() {
-        Drug[] drugs = drugStore.getAllDrugs();
-
-        Comparator<Drug> stockComparator = (d1, d2) -> Integer.compare(d1.getStockLevel(), d2.getStockLevel());
-        SortUtils.insertionSort(drugs, stockComparator);
-
-        return drugs;
+        synchronized (drugStore) {
+            return sortedByStock().clone();
+        }
     }
 
     /**
      * Sort drugs by expiration date
      */
     public Drug[] sortDrugsByExpirationDate() {
-        Drug[] drugs = drugStore.getAllDrugs();
+        synchronized (drugStore) {
+            return sortedByExpiry().clone();
+        }
+    }
+
+    /**
+     * Cached name-sorted view, rebuilt only after the store has changed
+     */
+    private Drug[] sortedByName() {
+        if (byName.isStale(drugStore)) {
+            Drug[] drugs = drugStore.getAllDrugs();
+            SortUtils.mergeSort(drugs, NAME_ORDER);
+            byName.refresh(drugs, drugStore);
+        }
+        return byName.drugs;
+    }
+
+    /**
+     * Cached Eytzinger index keyed by case-insensitive drug name
+     */
+    private MyEytzingerIndex<String, Drug> nameIndex() {
+        if (nameIndex == null || nameIndexVersion != drugStore.getVersion()) {
+            Drug[] drugs = sortedByName();
+            String[] names = new String[drugs.length];
+            for (int i = 0; i < drugs.length; i++) {
+                names[i] = drugs[i].getName();
+            }
+            nameIndex = MyEytzingerIndex.forStringsIgnoreCase(names, drugs);
+            nameIndexVersion = drugStore.getVersion();
+        }
+        return nameIndex;
+    }
+
+    /**
+     * Cached Eytzinger index keyed by drug code
+     */
+    private MyEytzingerIndex<String, Drug> codeIndex() {
+        if (codeIndex == null || codeIndexVersion != drugStore.getVersion()) {
+            Drug[] drugs = drugStore.getAllDrugs();
+            SortUtils.mergeSort(drugs, (d1, d2) -> d1.getDrugCode().compareTo(d2.getDrugCode()));
+            String[] codes = new String[drugs.length];
+            for (int i = 0; i < drugs.length; i++) {
+                codes[i] = drugs[i].getDrugCode();
+            }
+            codeIndex = MyEytzingerIndex.forStrings(codes, drugs);
+            codeIndexVersion = drugStore.getVersion();
+        }
+        return codeIndex;
+    }
 
-        Comparator<Drug> expirationComparator = (d1, d2) -> d1.getExpirationDate().compareTo(d2.getExpirationDate());
-        SortUtils.mergeSort(drugs, expirationComparator);
+    private Drug[] sortedByPrice() {
+        if (byPrice.isStale(drugStore)) {
+            Drug[] drugs = drugStore.getAllDrugs();
+            SortUtils.radixSortByLongKey(drugs, Drug::getPriceInCents);
+            byPrice.refresh(drugs, drugStore);
+        }
+        return byPrice.drugs;
+    }
 
-        return drugs;
+    private Drug[] sortedByStock() {
+        if (byStock.isStale(drugStore)) {
+            Drug[] drugs = drugStore.getAllDrugs();
+            SortUtils.countingSortByIntKey(drugs, Drug::getStockLevel);
+            byStock.refresh(drugs, drugStore);
+        }
+        return byStock.drugs;
+    }
+
+    private Drug[] sortedByExpiry() {
+        if (byExpiry.isStale(drugStore)) {
+            Drug[] drugs = drugStore.getAllDrugs();
+            SortUtils.mergeSort(drugs, EXPIRY_ORDER);
+            byExpiry.refresh(drugs, drugStore);
+        }
+        return byExpiry.drugs;
     }
 
     /**
      * Get low stock drugs
      */
     public Drug[] getLowStockDrugs() {
-        return drugStore.getLowStockDrugs();
+        synchronized (drugStore) {
+            Drug[] cached = queryCache.get(LOW_STOCK_QUERY);
+            if (cached == null) {
+                cached = drugStore.getLowStockDrugs();
+                queryCache.put(LOW_STOCK_QUERY, cached);
+            }
+            return cached.clone();
+        }
     }
 
     /**
@@ -192,18 +579,150 @@ public class DrugService {
         return drugStore.getExpiredDrugs();
     }
 
+    /**
+     * Run a composite query and stream the matching drugs in name order.
+     * Every predicate's candidate count is measured first (binary search on the
+     * sorted views, supplier-drug relation, trigram index); the smallest set seeds the
+     * result bitmap and the others are intersected into it, or checked per
+     * survivor when materializing them would cost more than the survivors.
+     */
+    public Stream<Drug> queryDrugs(DrugQuery query) {
+        synchronized (drugStore) {
+            Drug[] catalog = sortedByName();
+            refreshQueryIndexes();
+
+            List<Candidates> predicates = candidatesFor(query);
+            if (predicates.isEmpty()) {
+                return Arrays.stream(catalog);
+            }
+            predicates.sort(Comparator.comparingInt(c -> c.count));
+
+            BitSet result = predicates.get(0).toBitmap(catalogOrdinals);
+            for (int i = 1; i < predicates.size() && !result.isEmpty(); i++) {
+                Candidates next = predicates.get(i);
+                int survivors = result.cardinality();
+                if (next.count > survivors * VERIFY_RATIO) {
+                    for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                        if (!next.test.test(catalog[ordinal])) {
+                            result.clear(ordinal);
+                        }
+                    }
+                } else {
+                    result.and(next.toBitmap(catalogOrdinals));
+                }
+            }
+
+            return result.stream().mapToObj(ordinal -> catalog[ordinal]);
+        }
+    }
+
+    /**
+     * Run a composite query and collect the matching drugs in name order
+     */
+    public Drug[] findDrugs(DrugQuery query) {
+        return queryDrugs(query).toArray(Drug[]::new);
+    }
+
+    /**
+     * Build the candidate set of every predicate set on the query
+     */
+    private List<Candidates> candidatesFor(DrugQuery query) {
+        List<Candidates> predicates = new ArrayList<>();
+
+        if (query.getSupplier() != null) {
+            String supplier = query.getSupplier();
+            BitSet bitmap = new BitSet(catalogOrdinals.size());
+            for (Object drugCode : drugStore.getSupplierLinks().getRights(supplier)) {
+                Integer ordinal = catalogOrdinals.get((String) drugCode);
+                if (ordinal != null) {
+                    bitmap.set(ordinal);
+                }
+            }
+            predicates.add(new Candidates(bitmap, d -> d.hasSupplier(supplier)));
+        }
+
+        if (query.hasPriceRange()) {
+            long min = query.getMinPriceCents();
+            long max = query.getMaxPriceCents();
+            Drug[] view = sortedByPrice();
+            int from = firstIndex(view, d -> d.getPriceInCents() >= min);
+            int to = Math.max(from, firstIndex(view, d -> d.getPriceInCents() > max));
+            predicates.add(new Candidates(view, from, to,
+                    d -> d.getPriceInCents() >= min && d.getPriceInCents() <= max));
+        }
+
+        if (query.getExpiringBefore() != null) {
+            LocalDate date = query.getExpiringBefore();
+            Drug[] view = sortedByExpiry();
+            int to = firstIndex(view, d -> !d.getExpirationDate().isBefore(date));
+            predicates.add(new Candidates(view, 0, to, d -> d.getExpirationDate().isBefore(date)));
+        }
+
+        if (query.hasStockLimit()) {
+            int threshold = query.getStockBelow();
+            Drug[] view = sortedByStock();
+            int to = firstIndex(view, d -> d.getStockLevel() >= threshold);
+            predicates.add(new Candidates(view, 0, to, d -> d.getStockLevel() < threshold));
+        }
+
+        if (query.getNameContains() != null) {
+            String text = MyNGramIndex.normalize(query.getNameContains());
+            Drug[] matches = searchDrugsByName(text);
+            predicates.add(new Candidates(matches, 0, matches.length,
+                    d -> MyNGramIndex.normalize(d.getName()).contains(text)));
+        }
+
+        return predicates;
+    }
+
+    /**
+     * First index in a sorted view at which the monotone condition holds (view length if never)
+     */
+    private static int firstIndex(Drug[] view, Predicate<Drug> condition) {
+        int low = 0, high = view.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (condition.test(view[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Rebuild the catalog ordinals after the store has changed
+     */
+    private void refreshQueryIndexes() {
+        if (catalogOrdinals != null && queryIndexVersion == drugStore.getVersion()) {
+            return;
+        }
+
+        Drug[] catalog = sortedByName();
+        MyHashMap<String, Integer> ordinals = new MyHashMap<>(Math.max(16, catalog.length * 2));
+        for (int i = 0; i < catalog.length; i++) {
+            ordinals.put(catalog[i].getDrugCode(), i);
+        }
+
+        catalogOrdinals = ordinals;
+        queryIndexVersion = drugStore.getVersion();
+    }
+
     /**
      * Update stock level
      */
     public boolean updateStock(String drugCode, int newStockLevel) {
-        Drug drug = drugStore.getDrug(drugCode);
-        if (drug == null) {
-            System.out.println("Drug with code " + drugCode + " not found.");
-            return false;
-        }
+        synchronized (drugStore) {
+            Drug drug = drugStore.getDrug(drugCode);
+            if (drug == null) {
+                System.out.println("Drug with code " + drugCode + " not found.");
+                return false;
+            }
 
-        drug.setStockLevel(newStockLevel);
-        return drugStore.updateDrug(drug);
+            drug.setStockLevel(newStockLevel);
+            return drugStore.updateDrug(drug);
+        }
     }
 
     /**
@@ -230,8 +749,19 @@ public class DrugService {
             return false;
         }
 
-        if (drug.reduceStock(quantity)) {
-            drugStore.updateDrug(drug);
+        if (quantity <= 0) {
+            System.out.println("Quantity must be positive.");
+            return false;
+        }
+
+        if (drug.tryReduce(quantity)) {
+            // Only the decrement is lock-free; the store serializes the write with checkout
+            if (!drugStore.updateDrug(drug)) {
+                System.out.println("Failed to save stock levels.");
+                drug.addStock(quantity);
+                drugStore.updateDrug(drug);
+                return false;
+            }
             return true;
         } else {
             System.out.println("Insufficient stock. Available: " + drug.getStockLevel() + ", Requested: " + quantity);
@@ -239,32 +769,150 @@ public class DrugService {
         }
     }
 
+    /**
+     * Apply a batch of stock adjustments with a single write of the drug file.
+     * Lines are applied in order as atomic deltas on the live stock (so a REDUCE
+     * may rely on an earlier ADD in the same batch, and a concurrent checkout is
+     * never overwritten); invalid lines are skipped and reported, valid lines are
+     * persisted together. If that write fails, every applied line is undone with
+     * the opposite delta and reported as not applied.
+     */
+    public List<StockAdjustment.Result> applyStockAdjustments(List<StockAdjustment> adjustments) {
+        List<StockAdjustment.Result> results = new ArrayList<>();
+        int[] deltas = new int[adjustments.size()]; // Change each result's line made to its drug
+        MyHashMap<String, Drug> touched = new MyHashMap<>();
+        List<Drug> changed = new ArrayList<>();
+
+        for (StockAdjustment adjustment : adjustments) {
+            Drug drug = drugStore.getDrug(adjustment.getDrugCode());
+            if (drug == null) {
+                results.add(new StockAdjustment.Result(adjustment, false, -1, "Drug not found"));
+                continue;
+            }
+
+            int quantity = adjustment.getQuantity();
+            int delta = 0;
+            String error = null;
+            switch (adjustment.getType()) {
+                case ADD:
+                    if (quantity <= 0) {
+                        error = "Quantity must be positive";
+                    } else {
+                        drug.addStock(quantity);
+                        delta = quantity;
+                    }
+                    break;
+                case REDUCE:
+                    if (quantity <= 0) {
+                        error = "Quantity must be positive";
+                    } else if (!drug.tryReduce(quantity)) {
+                        error = "Insufficient stock. Available: " + drug.getStockLevel() + ", Requested: " + quantity;
+                    } else {
+                        delta = -quantity;
+                    }
+                    break;
+                case SET:
+                    if (quantity < 0) {
+                        error = "Stock level cannot be negative";
+                    } else {
+                        delta = quantity - drug.exchangeStockLevel(quantity);
+                    }
+                    break;
+            }
+
+            if (error != null) {
+                results.add(new StockAdjustment.Result(adjustment, false, drug.getStockLevel(), error));
+            } else {
+                if (touched.get(drug.getDrugCode()) == null) {
+                    touched.put(drug.getDrugCode(), drug);
+                    changed.add(drug);
+                }
+                deltas[results.size()] = delta;
+                results.add(new StockAdjustment.Result(adjustment, true, drug.getStockLevel(), "OK"));
+            }
+        }
+
+        if (!changed.isEmpty() && !drugStore.updateDrugs(changed)) {
+            System.out.println("Failed to save stock adjustments.");
+            // Undo each line with the opposite delta, newest first, so sales made meanwhile are kept
+            for (int i = results.size() - 1; i >= 0; i--) {
+                StockAdjustment.Result result = results.get(i);
+                if (!result.isApplied()) {
+                    continue;
+                }
+                Drug drug = touched.get(result.getAdjustment().getDrugCode());
+                if (deltas[i] < 0) {
+                    drug.addStock(-deltas[i]);
+                } else if (deltas[i] > 0 && !drug.tryReduce(deltas[i])) {
+                    System.out.println("Could not take back " + deltas[i] + " unit(s) of " + drug.getDrugCode()
+                            + ": they were sold in the meantime.");
+                }
+            }
+            // Re-notify the listeners so their indexes match the restored levels
+            drugStore.updateDrugs(changed);
+            for (int i = 0; i < results.size(); i++) {
+                StockAdjustment.Result result = results.get(i);
+                if (result.isApplied()) {
+                    int stock = touched.get(result.getAdjustment().getDrugCode()).getStockLevel();
+                    results.set(i, new StockAdjustment.Result(result.getAdjustment(), false, stock,
+                            "Not saved: could not write the drug file"));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Register a listener for catalog changes (additions, in-place updates, removals)
+     */
+    public void addChangeListener(DrugStore.DrugChangeListener listener) {
+        drugStore.addChangeListener(listener);
+    }
+
+    /**
+     * Get the supplier-drug relation owned by the store (left: supplier name, right: drug code)
+     */
+    public MyBiMultiMap<String, String> getSupplierLinks() {
+        return drugStore.getSupplierLinks();
+    }
+
+    /**
+     * Persist stock levels already changed in place (e.g. reserved by a checkout) with one write
+     */
+    public boolean saveStockChanges(List<Drug> drugs) {
+        return drugStore.updateDrugs(drugs);
+    }
+
     /**
      * Add supplier to drug
      */
     public boolean addSupplierToDrug(String drugCode, String supplier) {
-        Drug drug = drugStore.getDrug(drugCode);
-        if (drug == null) {
-            System.out.println("Drug with code " + drugCode + " not found.");
-            return false;
-        }
+        synchronized (drugStore) {
+            Drug drug = drugStore.getDrug(drugCode);
+            if (drug == null) {
+                System.out.println("Drug with code " + drugCode + " not found.");
+                return false;
+            }
 
-        drug.addSupplier(supplier);
-        return drugStore.updateDrug(drug);
+            drug.addSupplier(supplier);
+            return drugStore.updateDrug(drug);
+        }
     }
 
     /**
      * Remove supplier from drug
      */
     public boolean removeSupplierFromDrug(String drugCode, String supplier) {
-        Drug drug = drugStore.getDrug(drugCode);
-        if (drug == null) {
-            System.out.println("Drug with code " + drugCode + " not found.");
-            return false;
-        }
+        synchronized (drugStore) {
+            Drug drug = drugStore.getDrug(drugCode);
+            if (drug == null) {
+                System.out.println("Drug with code " + drugCode + " not found.");
+                return false;
+            }
 
-        drug.removeSupplier(supplier);
-        return drugStore.updateDrug(drug);
+            drug.removeSupplier(supplier);
+            return drugStore.updateDrug(drug);
+        }
     }
 
     /**
@@ -287,15 +935,29 @@ public class DrugService {
     }
 
     /**
-     * Binary search for drug by name (requires sorted array)
+     * Search for drug by exact name (case-insensitive) using the Eytzinger name index
      */
     public Drug binarySearchByName(String name) {
-        Drug[] sortedDrugs = sortDrugsByName();
-        Drug searchDrug = new Drug("TEMP", name, 0, 0, LocalDate.now());
+        synchronized (drugStore) {
+            return nameIndex().get(name);
+        }
+    }
 
-        Comparator<Drug> nameComparator = (d1, d2) -> d1.getName().compareToIgnoreCase(d2.getName());
-        int index = SortUtils.binarySearch(sortedDrugs, searchDrug, nameComparator);
+    /**
+     * Find the first drug whose name sorts at or after the given name (lower bound)
+     */
+    public Drug findDrugByNameAtOrAfter(String name) {
+        synchronized (drugStore) {
+            return nameIndex().ceilingValue(name);
+        }
+    }
 
-        return index >= 0 ? sortedDrugs[index] : null;
+    /**
+     * Find the first drug whose code sorts at or after the given code (lower bound)
+     */
+    public Drug findDrugByCodeAtOrAfter(String drugCode) {
+        synchronized (drugStore) {
+            return codeIndex().ceilingValue(drugCode);
+        }
     }
 }
@@ -0,0 +1,388 @@
+package services;
+
+import models.Drug;
+import models.Supplier;
+import structures.MyHashMap;
+import utils.FileUtils;
+import utils.ReportWriter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * End-of-day report batch.
+ * The catalog is read once by a fork-join pass that splits the drug array and
+ * feeds every report's accumulator from the same visit, while the day's
+ * transactions are scanned by a concurrent task. Each report is then written by
+ * its own task through its own ReportWriter, so the files are produced in parallel.
+ */
+class ReportBatch {
+    private static final int SPLIT_THRESHOLD = 1024; // Drugs per leaf task
+
+    private final ForkJoinPool pool;
+    private final DrugService drugService;
+    private final SalesService salesService;
+    private final SupplierService supplierService;
+    private final LocalDate day;
+    private final LocalDateTime stamp; // Shared by the file names of one batch
+
+    /**
+     * Everything the catalog reports need, gathered in one visit per drug.
+     * Leaf tasks fill their own instance and parents merge them.
+     */
+    private static class CatalogTotals {
+        final List<Drug> drugs = new ArrayList<>();
+        final List<Drug> expired = new ArrayList<>();
+        final List<Drug> expiringSoon = new ArrayList<>();
+        final List<Drug> lowStock = new ArrayList<>();
+        final MyHashMap<String, long[]> bySupplier = new MyHashMap<>(); // {drugs, units, cents, low, expired}
+        long units;
+        long valueCents;
+        long expiredValueCents;
+        long expiringValueCents;
+        long lowStockValueCents;
+
+        void accept(Drug drug, LocalDate day, LocalDate soonLimit) {
+            long value = drug.getPriceInCents() * drug.getStockLevel();
+            boolean isExpired = day.isAfter(drug.getExpirationDate());
+            boolean isLow = drug.isLowStock();
+
+            drugs.add(drug);
+            units += drug.getStockLevel();
+            valueCents += value;
+            if (isExpired) {
+                expired.add(drug);
+                expiredValueCents += value;
+            } else if (!soonLimit.isBefore(drug.getExpirationDate())) {
+                expiringSoon.add(drug);
+                expiringValueCents += value;
+            }
+            if (isLow) {
+                lowStock.add(drug);
+                lowStockValueCents += value;
+            }
+
+            if (drug.getSupplierCount() > 0) {
+                for (String supplier : drug.getSuppliers()) {
+                    long[] totals = supplierTotals(supplier);
+                    totals[0]++;
+                    totals[1] += drug.getStockLevel();
+                    totals[2] += value;
+                    totals[3] += isLow ? 1 : 0;
+                    totals[4] += isExpired ? 1 : 0;
+                }
+            }
+        }
+
+        long[] supplierTotals(String supplier) {
+            long[] totals = bySupplier.get(supplier);
+            if (totals == null) {
+                totals = new long[5];
+                bySupplier.put(supplier, totals);
+            }
+            return totals;
+        }
+
+        CatalogTotals merge(CatalogTotals other) {
+            drugs.addAll(other.drugs);
+            expired.addAll(other.expired);
+            expiringSoon.addAll(other.expiringSoon);
+            lowStock.addAll(other.lowStock);
+            units += other.units;
+            valueCents += other.valueCents;
+            expiredValueCents += other.expiredValueCents;
+            expiringValueCents += other.expiringValueCents;
+            lowStockValueCents += other.lowStockValueCents;
+            for (Object nameObj : other.bySupplier.keySet()) {
+                long[] from = other.bySupplier.get((String) nameObj);
+                long[] into = supplierTotals((String) nameObj);
+                for (int i = 0; i < into.length; i++) {
+                    into[i] += from[i];
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Fork-join pass over a slice of the drug array
+     */
+    private static class CatalogPass extends RecursiveTask<CatalogTotals> {
+        private static final long serialVersionUID = 1L;
+
+        private final Drug[] drugs;
+        private final int from;
+        private final int to;
+        private final LocalDate day;
+        private final LocalDate soonLimit;
+
+        CatalogPass(Drug[] drugs, int from, int to, LocalDate day, LocalDate soonLimit) {
+            this.drugs = drugs;
+            this.from = from;
+            this.to = to;
+            this.day = day;
+            this.soonLimit = soonLimit;
+        }
+
+        @Override
+        protected CatalogTotals compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                CatalogTotals totals = new CatalogTotals();
+                for (int i = from; i < to; i++) {
+                    totals.accept(drugs[i], day, soonLimit);
+                }
+                return totals;
+            }
+            int mid = (from + to) >>> 1;
+            CatalogPass left = new CatalogPass(drugs, from, mid, day, soonLimit);
+            left.fork();
+            CatalogTotals right = new CatalogPass(drugs, mid, to, day, soonLimit).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Sales totals of the day, per drug and per hour
+     */
+    private static class SalesTotals {
+        final MyHashMap<String, long[]> byDrug = new MyHashMap<>(); // {quantity, cents, transactions}
+        final long[][] byHour = new long[24][3];
+        final long[] totals = new long[3];
+    }
+
+    ReportBatch(ForkJoinPool pool, DrugService drugService, SalesService salesService,
+            SupplierService supplierService, LocalDate day) {
+        this.pool = pool;
+        this.drugService = drugService;
+        this.salesService = salesService;
+        this.supplierService = supplierService;
+        this.day = day;
+        this.stamp = LocalDateTime.now();
+    }
+
+    /**
+     * Gather the data once, then write every report concurrently
+     *
+     * @return the report file names in a fixed order, null where a report failed
+     */
+    String[] run() {
+        ForkJoinTask<SalesTotals> salesTask = pool.submit(this::scanSales);
+        Drug[] drugs = drugService.getAllDrugs();
+        CatalogTotals catalog = pool.invoke(new CatalogPass(drugs, 0, drugs.length, day,
+                day.plusDays(StockService.EXPIRING_SOON_DAYS)));
+        SalesTotals sales = salesTask.join();
+
+        List<Callable<String>> writers = Arrays.asList(
+                () -> writeInventory(catalog),
+                () -> writeExpiry(catalog),
+                () -> writeLowStock(catalog),
+                () -> writeSuppliers(catalog),
+                () -> writeSales(sales));
+        List<Future<String>> results = pool.invokeAll(writers);
+
+        String[] fileNames = new String[results.size()];
+        for (int i = 0; i < fileNames.length; i++) {
+            try {
+                fileNames[i] = results.get(i).get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error generating end-of-day report: " + e.getMessage());
+            }
+        }
+        return fileNames;
+    }
+
+    private SalesTotals scanSales() {
+        SalesTotals sales = new SalesTotals();
+        salesService.forEachTransaction(day, day.plusDays(1), transaction -> {
+            long cents = Math.round(transaction.getTotalCost() * 100);
+            long[] drugTotals = sales.byDrug.get(transaction.getDrugCode());
+            if (drugTotals == null) {
+                drugTotals = new long[3];
+                sales.byDrug.put(transaction.getDrugCode(), drugTotals);
+            }
+            long[] hourTotals = sales.byHour[transaction.getTimestamp().getHour()];
+            for (long[] totals : new long[][] { drugTotals, hourTotals, sales.totals }) {
+                totals[0] += transaction.getQuantity();
+                totals[1] += cents;
+                totals[2]++;
+            }
+        });
+        return sales;
+    }
+
+    private String writeInventory(CatalogTotals catalog) {
+        String fileName = ReportService.reportFileName("eod_inventory", stamp);
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("END OF DAY: INVENTORY VALUATION (" + day + ")");
+            report.section("Stock on Hand (by name)");
+            report.columns("%-8s %-25s %8d %10.2f %12.2f", "Code", "Name", "Stock", "Price", "Value");
+            Drug[] drugs = catalog.drugs.toArray(new Drug[0]);
+            Arrays.sort(drugs, Comparator.comparing(Drug::getName).thenComparing(Drug::getDrugCode));
+            for (Drug drug : drugs) {
+                report.row(drug.getDrugCode(), ReportService.truncate(drug.getName(), 25), drug.getStockLevel(),
+                        drug.getPrice(), drug.getPriceInCents() * drug.getStockLevel() / 100.0);
+            }
+
+            report.section("Valuation");
+            report.field("Total drugs", drugs.length);
+            report.field("Total units in stock", catalog.units);
+            report.field("Total stock value", money(catalog.valueCents));
+            report.field("Value of expired stock", money(catalog.expiredValueCents));
+            report.field("Value of low stock lines", money(catalog.lowStockValueCents));
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    private String writeExpiry(CatalogTotals catalog) {
+        String fileName = ReportService.reportFileName("eod_expiry", stamp);
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("END OF DAY: EXPIRY (" + day + ")");
+            writeExpiryTable(report, "Expired", catalog.expired);
+            writeExpiryTable(report, "Expiring within " + StockService.EXPIRING_SOON_DAYS + " days",
+                    catalog.expiringSoon);
+
+            report.section("Summary");
+            report.field("Expired drugs", catalog.expired.size());
+            report.field("Value of expired stock", money(catalog.expiredValueCents));
+            report.field("Expiring soon", catalog.expiringSoon.size());
+            report.field("Value expiring soon", money(catalog.expiringValueCents));
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    private void writeExpiryTable(ReportWriter report, String heading, List<Drug> drugs) {
+        Drug[] sorted = drugs.toArray(new Drug[0]);
+        Arrays.sort(sorted, Comparator.comparing(Drug::getExpirationDate).thenComparing(Drug::getDrugCode));
+        report.section(heading);
+        report.columns("%-8s %-25s %-12s %8d %12.2f", "Code", "Name", "Expiry", "Stock", "Value");
+        for (Drug drug : sorted) {
+            report.row(drug.getDrugCode(), ReportService.truncate(drug.getName(), 25), drug.getExpirationDate(),
+                    drug.getStockLevel(), drug.getPriceInCents() * drug.getStockLevel() / 100.0);
+        }
+    }
+
+    private String writeLowStock(CatalogTotals catalog) {
+        String fileName = ReportService.reportFileName("eod_low_stock", stamp);
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("END OF DAY: LOW STOCK (" + day + ")");
+            report.section("At or Below Threshold (lowest stock first)");
+            report.columns("%-8s %-25s %8d %9d %-20s", "Code", "Name", "Stock", "Minimum", "Fastest Supplier");
+            Drug[] drugs = catalog.lowStock.toArray(new Drug[0]);
+            Arrays.sort(drugs, Comparator.comparingInt(Drug::getStockLevel).thenComparing(Drug::getDrugCode));
+            for (Drug drug : drugs) {
+                Supplier fastest = supplierService.getFastestSupplier(drug.getDrugCode());
+                String supplier = fastest != null
+                        ? ReportService.truncate(fastest.getName(), 14) + " (" + fastest.getDeliveryTurnaroundDays() + "d)"
+                        : "-";
+                report.row(drug.getDrugCode(), ReportService.truncate(drug.getName(), 25), drug.getStockLevel(),
+                        drug.getMinStockThreshold(), supplier);
+            }
+
+            report.section("Summary");
+            report.field("Low stock drugs", drugs.length);
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    private String writeSuppliers(CatalogTotals catalog) {
+        String fileName = ReportService.reportFileName("eod_suppliers", stamp);
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("END OF DAY: SUPPLIERS (" + day + ")");
+            report.section("Registered Suppliers (fastest delivery first)");
+            report.columns("%-6s %-20s %5d %6d %8d %12.2f %5d %7d",
+                    "ID", "Name", "Days", "Drugs", "Units", "Value", "Low", "Expired");
+            MyHashMap<String, Boolean> registered = new MyHashMap<>();
+            for (Supplier supplier : supplierService.getSuppliersByTurnaround()) {
+                long[] totals = catalog.bySupplier.get(supplier.getName());
+                if (totals == null) {
+                    totals = new long[5];
+                }
+                report.row(supplier.getSupplierId(), ReportService.truncate(supplier.getName(), 20),
+                        supplier.getDeliveryTurnaroundDays(), totals[0], totals[1], totals[2] / 100.0, totals[3],
+                        totals[4]);
+                registered.put(supplier.getName(), Boolean.TRUE);
+            }
+
+            report.section("Unregistered Supplier Names on Drugs");
+            report.columns("%-27s %6d %8d %12.2f %5d %7d", "Name", "Drugs", "Units", "Value", "Low", "Expired");
+            Object[] names = catalog.bySupplier.keySet();
+            Arrays.sort(names);
+            for (Object nameObj : names) {
+                String name = (String) nameObj;
+                if (!registered.containsKey(name)) {
+                    long[] totals = catalog.bySupplier.get(name);
+                    report.row(ReportService.truncate(name, 27), totals[0], totals[1], totals[2] / 100.0, totals[3],
+                            totals[4]);
+                }
+            }
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    private String writeSales(SalesTotals sales) {
+        String fileName = ReportService.reportFileName("eod_sales", stamp);
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("END OF DAY: SALES (" + day + ")");
+            report.section("By Drug");
+            report.columns("%-8s %-25s %8d %12.2f %8d", "Code", "Name", "Units", "Revenue", "Sales");
+            Object[] codes = sales.byDrug.keySet();
+            Arrays.sort(codes);
+            for (Object codeObj : codes) {
+                String drugCode = (String) codeObj;
+                long[] totals = sales.byDrug.get(drugCode);
+                Drug drug = drugService.getDrug(drugCode);
+                report.row(drugCode, ReportService.truncate(drug != null ? drug.getName() : "(removed)", 25),
+                        totals[0], totals[1] / 100.0, totals[2]);
+            }
+
+            report.section("By Hour");
+            report.columns("%-6s %8d %12.2f %8d", "Hour", "Units", "Revenue", "Sales");
+            for (int hour = 0; hour < 24; hour++) {
+                long[] totals = sales.byHour[hour];
+                if (totals[2] > 0) {
+                    report.row(String.format("%02d:00", hour), totals[0], totals[1] / 100.0, totals[2]);
+                }
+            }
+
+            report.section("Summary");
+            report.field("Transactions", sales.totals[2]);
+            report.field("Units sold", sales.totals[0]);
+            report.field("Revenue", money(sales.totals[1]));
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    private static String money(long cents) {
+        return String.format("$%.2f", cents / 100.0);
+    }
+}
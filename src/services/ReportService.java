@@ -1,4 +1,316 @@
 package services;
 
+import models.Drug;
+import models.SalesSummary;
+import storage.SalesAggregateStore;
+import structures.MyHashMap;
+import structures.MySpaceSaving;
+import utils.ExternalSortUtils;
+import utils.FileUtils;
+import utils.ReportWriter;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service class for generating reports into the reports/ directory.
+ * Reports are streamed through a ReportWriter row by row, so memory use does
+ * not grow with the number of drugs or transactions covered. Daily, monthly and
+ * yearly summaries are read from the materialized sales aggregates, which are
+ * kept current by listening to every checkout.
+ */
 public class ReportService {
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private DrugService drugService;
+    private SalesService salesService;
+    private SupplierService supplierService;
+    private SalesAggregateStore aggregates;
+    private ForkJoinPool reportPool; // Runs the end-of-day batch
+
+    public ReportService(DrugService drugService, SalesService salesService, SupplierService supplierService) {
+        this.drugService = drugService;
+        this.salesService = salesService;
+        this.supplierService = supplierService;
+        this.reportPool = new ForkJoinPool();
+        this.aggregates = new SalesAggregateStore();
+
+        if (!aggregates.isInSync(salesService.getLastSaleId(), salesService.getLoggedSaleCount())) {
+            rebuildAggregates();
+        }
+        salesService.addSaleListener(sales -> {
+            if (!aggregates.add(sales)) {
+                System.err.println("Warning: sales aggregates could not be saved; they will be rebuilt on restart");
+            }
+        });
+    }
+
+    /**
+     * Rebuild the sales aggregates from the sales log
+     */
+    private void rebuildAggregates() {
+        System.out.println("Rebuilding sales aggregates from the sales log...");
+        aggregates.clear();
+        salesService.forEachLoggedSale(aggregates::fold);
+        aggregates.save();
+    }
+
+    /**
+     * Get the sales totals of one day
+     */
+    public SalesSummary getDailySales(LocalDate day) {
+        return aggregates.getDay(day);
+    }
+
+    /**
+     * Get the sales totals of one calendar month
+     */
+    public SalesSummary getMonthlySales(YearMonth month) {
+        return aggregates.getMonth(month);
+    }
+
+    /**
+     * Get the sales totals of one calendar year
+     */
+    public SalesSummary getYearlySales(int year) {
+        return aggregates.getYear(year);
+    }
+
+    /**
+     * Get the sales totals from fromDay to toDay (inclusive)
+     */
+    public SalesSummary getSalesTotals(LocalDate fromDay, LocalDate toDay) {
+        return aggregates.getRange(fromDay, toDay);
+    }
+
+    /**
+     * File name for a new report, e.g. inventory_20251019_143000.txt
+     */
+    private static String reportFileName(String prefix) {
+        return reportFileName(prefix, LocalDateTime.now());
+    }
+
+    static String reportFileName(String prefix, LocalDateTime time) {
+        return prefix + "_" + time.format(FILE_STAMP) + ".txt";
+    }
+
+    /**
+     * Write the inventory report: every drug with its stock value and status
+     *
+     * @return the report file name, or null if it could not be written
+     */
+    public String generateInventoryReport() {
+        String fileName = reportFileName("inventory");
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("INVENTORY REPORT");
+            report.section("Stock on Hand (by name)");
+            report.columns("%-8s %-25s %8d %10.2f %12.2f %-12s %-8s",
+                    "Code", "Name", "Stock", "Price", "Value", "Expiry", "Status");
+
+            long totalUnits = 0;
+            long totalValueCents = 0;
+            int lowStock = 0;
+            int expired = 0;
+            for (Drug drug : drugService.sortDrugsByName()) {
+                long valueCents = drug.getPriceInCents() * drug.getStockLevel();
+                String status = drug.isExpired() ? "EXPIRED" : drug.isLowStock() ? "LOW" : "OK";
+                report.row(drug.getDrugCode(), truncate(drug.getName(), 25), drug.getStockLevel(),
+                        drug.getPrice(), valueCents / 100.0, drug.getExpirationDate(), status);
+
+                totalUnits += drug.getStockLevel();
+                totalValueCents += valueCents;
+                if (drug.isLowStock()) {
+                    lowStock++;
+                }
+                if (drug.isExpired()) {
+                    expired++;
+                }
+            }
+
+            report.section("Summary");
+            report.field("Total drugs", report.getRowCount());
+            report.field("Total units in stock", totalUnits);
+            report.field("Total stock value", String.format("$%.2f", totalValueCents / 100.0));
+            report.field("Low stock drugs", lowStock);
+            report.field("Expired drugs", expired);
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    /**
+     * Write the sales report for fromDay to toDay (inclusive): every transaction
+     * as it is read, then totals per drug and overall
+     *
+     * @return the report file name, or null if it could not be written
+     */
+    public String generateSalesReport(LocalDate fromDay, LocalDate toDay) {
+        String fileName = reportFileName("sales");
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("SALES REPORT");
+            report.field("Period", fromDay + " to " + toDay);
+            report.section("Transactions");
+            report.columns("%-10s %-19s %-8s %-8s %6d %12.2f", "ID", "Time", "Drug", "Customer", "Qty", "Total");
+
+            // Per-drug totals are bounded by the catalog size, not by the number of transactions
+            MyHashMap<String, long[]> byDrug = new MyHashMap<>(); // {quantity, cents, transactions}
+            long[] totals = new long[3];
+            salesService.forEachTransaction(fromDay, toDay.plusDays(1), transaction -> {
+                long cents = Math.round(transaction.getTotalCost() * 100);
+                report.row(transaction.getTransactionId(), transaction.getFormattedTimestamp(),
+                        transaction.getDrugCode(),
+                        transaction.getCustomerId() != null ? transaction.getCustomerId() : "-",
+                        transaction.getQuantity(), cents / 100.0);
+
+                long[] drugTotals = byDrug.get(transaction.getDrugCode());
+                if (drugTotals == null) {
+                    drugTotals = new long[3];
+                    byDrug.put(transaction.getDrugCode(), drugTotals);
+                }
+                drugTotals[0] += transaction.getQuantity();
+                drugTotals[1] += cents;
+                drugTotals[2]++;
+                totals[0] += transaction.getQuantity();
+                totals[1] += cents;
+                totals[2]++;
+            });
+
+            report.section("By Drug");
+            report.columns("%-8s %-25s %8d %12.2f %8d", "Code", "Name", "Units", "Revenue", "Sales");
+            for (Object codeObj : byDrug.keySet()) {
+                String drugCode = (String) codeObj;
+                long[] drugTotals = byDrug.get(drugCode);
+                Drug drug = drugService.getDrug(drugCode);
+                report.row(drugCode, truncate(drug != null ? drug.getName() : "(removed)", 25), drugTotals[0],
+                        drugTotals[1] / 100.0, drugTotals[2]);
+            }
+
+            report.section("Summary");
+            report.field("Transactions", totals[2]);
+            report.field("Units sold", totals[0]);
+            report.field("Revenue", String.format("$%.2f", totals[1] / 100.0));
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    /**
+     * Get the approximate k best-selling drugs by units over the last 'days' days
+     * (at most SalesService.TOP_SELLER_DAYS), highest first
+     */
+    public List<MySpaceSaving.Counter<String>> getTopSellers(int days, int k) {
+        return salesService.getTopSellers(days).top(k);
+    }
+
+    /**
+     * Write the top sellers of the last 'days' days with the error bound of each count
+     *
+     * @return the report file name, or null if it could not be written
+     */
+    public String generateTopSellersReport(int days, int k) {
+        MySpaceSaving<String> sketch = salesService.getTopSellers(days);
+        String fileName = reportFileName("top_sellers");
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("TOP SELLERS");
+            report.field("Period", "Last " + Math.min(days, SalesService.TOP_SELLER_DAYS) + " day(s)");
+            report.section("By Units Sold (approximate)");
+            report.columns("%4d %-8s %-25s %10d %10d", "Rank", "Code", "Name", "Units", "At Least");
+            int rank = 0;
+            for (MySpaceSaving.Counter<String> counter : sketch.top(k)) {
+                Drug drug = drugService.getDrug(counter.getKey());
+                report.row(++rank, counter.getKey(), truncate(drug != null ? drug.getName() : "(removed)", 25),
+                        counter.getCount(), counter.getGuaranteedCount());
+            }
+
+            report.section("Summary");
+            report.field("Units sold", sketch.getTotal());
+            report.field("Maximum overcount", sketch.getMaxError());
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    /**
+     * Export every transaction (transactions.txt history and the sales log) sorted
+     * by time. Together they may be far larger than memory, so they are sorted
+     * with an external merge sort on the time field.
+     *
+     * @return the export file name, or null if it could not be written
+     */
+    public String exportTransactionsByTime() {
+        String fileName = reportFileName("transactions_by_time");
+        File output = FileUtils.getReportFile(fileName);
+        List<File> inputs = new ArrayList<>();
+        if (FileUtils.fileExists("transactions.txt")) {
+            inputs.add(FileUtils.getDataFile("transactions.txt"));
+        }
+        inputs.addAll(salesService.getSalesLogFiles());
+        // Field 3 is the "yyyy-MM-dd HH:mm" time in both layouts, which sorts correctly as text
+        if (!ExternalSortUtils.sortFiles(inputs, output, ExternalSortUtils.byPipeField(3),
+                ExternalSortUtils.DEFAULT_MEMORY_BUDGET)) {
+            output.delete();
+            return null;
+        }
+        return fileName;
+    }
+
+    /**
+     * Write the end-of-day reports (inventory valuation, expiry, low stock,
+     * suppliers and the day's sales) from one shared pass over the data,
+     * each report written concurrently to its own file
+     *
+     * @return the report file names, null where a report could not be written
+     */
+    public String[] generateEndOfDayReports(LocalDate day) {
+        return new ReportBatch(reportPool, drugService, salesService, supplierService, day).run();
+    }
+
+    /**
+     * Write a sales summary (per-drug totals of a day, month or year)
+     *
+     * @return the report file name, or null if it could not be written
+     */
+    public String generateSalesSummaryReport(SalesSummary summary) {
+        String fileName = reportFileName("sales_summary_" + summary.getPeriod().replace(' ', '_'));
+        try (ReportWriter report = FileUtils.openReport(fileName)) {
+            if (report == null) {
+                return null;
+            }
+
+            report.title("SALES SUMMARY");
+            report.field("Period", summary.getPeriod());
+            report.section("By Drug (highest revenue first)");
+            report.columns("%-8s %-25s %8d %12.2f %8d", "Code", "Name", "Units", "Revenue", "Sales");
+            for (SalesSummary.DrugTotals totals : summary.getDrugTotals()) {
+                Drug drug = drugService.getDrug(totals.getDrugCode());
+                report.row(totals.getDrugCode(), truncate(drug != null ? drug.getName() : "(removed)", 25),
+                        totals.getQuantity(), totals.getRevenue(), totals.getSales());
+            }
+
+            report.section("Summary");
+            report.field("Transactions", summary.getSales());
+            report.field("Units sold", summary.getQuantity());
+            report.field("Revenue", String.format("$%.2f", summary.getRevenue()));
+            return report.finish() ? fileName : null;
+        }
+    }
+
+    static String truncate(String text, int width) {
+        return text.length() > width ? text.substring(0, width - 3) + "..." : text;
+    }
 }
@@ -1,4 +1,312 @@
 package services;
 
+import models.Cart;
+import models.Drug;
+import models.Transaction;
+import storage.SalesLogStore;
+import storage.TransactionStore;
+import structures.MySpaceSaving;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service class for sales: multi-item cart checkout and the sales log.
+ * Units sold per drug are also fed into one Space-Saving sketch per day in a
+ * ring covering TOP_SELLER_DAYS, so the top sellers of any recent period are
+ * read by merging a few fixed-size sketches instead of counting the history.
+ */
 public class SalesService {
+    public static final int TOP_SELLER_DAYS = 30;
+    private static final int TOP_SELLER_CAPACITY = 64; // Drugs counted per day
+
+    private DrugService drugService;
+    private CustomerService customerService;
+    private SalesLogStore salesLog;
+    private TransactionStore transactionStore;
+    private int nextSaleNumber;
+    private List<SaleListener> listeners;
+    private List<MySpaceSaving<String>> dailyTopSellers; // Ring indexed by epoch day; key: drugCode
+    private long topSellerDay; // Newest day in the ring
+
+    /**
+     * Callback for components that keep derived data over the sales log.
+     * Called once per checkout, after the sales have been appended to the log.
+     */
+    public interface SaleListener {
+        void onSales(List<Transaction> sales);
+    }
+
+    public SalesService(DrugService drugService, CustomerService customerService) {
+        this.drugService = drugService;
+        this.customerService = customerService;
+        this.listeners = new ArrayList<>();
+        this.salesLog = new SalesLogStore();
+        this.transactionStore = new TransactionStore();
+        transactionStore.addLoggedSales(salesLog);
+        this.nextSaleNumber = findLastSaleNumber() + 1;
+
+        this.dailyTopSellers = new ArrayList<>();
+        for (int i = 0; i < TOP_SELLER_DAYS; i++) {
+            dailyTopSellers.add(new MySpaceSaving<>(TOP_SELLER_CAPACITY));
+        }
+        LocalDate today = LocalDate.now();
+        this.topSellerDay = today.toEpochDay();
+        for (Transaction sale : salesLog.getSalesBetween(today.minusDays(TOP_SELLER_DAYS - 1).atStartOfDay(),
+                today.plusDays(1).atStartOfDay())) {
+            recordTopSeller(sale);
+        }
+    }
+
+    /**
+     * Register a listener to be told about every completed checkout
+     */
+    public void addSaleListener(SaleListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Number of the most recent SL### sale in the log
+     */
+    private int findLastSaleNumber() {
+        String lastId = salesLog.getLastSaleId();
+        if (lastId != null && lastId.startsWith("SL")) {
+            try {
+                return Integer.parseInt(lastId.substring(2));
+            } catch (NumberFormatException e) {
+                // Not a generated id, start from the beginning
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Check out a cart as one unit: stock for every line is reserved first and
+     * released again if any line cannot be filled; on success the stock levels
+     * are saved with a single store write and all sales with a single log append.
+     *
+     * @return one SALE transaction per cart line, or null if the checkout failed
+     */
+    public Transaction[] checkout(Cart cart) {
+        if (cart == null || cart.isEmpty()) {
+            System.out.println("Cart is empty.");
+            return null;
+        }
+
+        String customerId = cart.getCustomerId();
+        if (customerId != null && !customerService.customerExists(customerId)) {
+            System.out.println("Customer with ID " + customerId + " not found.");
+            return null;
+        }
+
+        // Resolve every line before touching stock
+        List<Cart.Line> lines = cart.getLines();
+        Drug[] drugs = new Drug[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            Drug drug = drugService.getDrug(lines.get(i).getDrugCode());
+            if (drug == null) {
+                System.out.println("Drug with code " + lines.get(i).getDrugCode() + " not found.");
+                return null;
+            }
+            if (drug.isExpired()) {
+                System.out.println(drug.getName() + " is expired and cannot be sold.");
+                return null;
+            }
+            drugs[i] = drug;
+        }
+
+        // Reserve stock line by line; each reservation is an atomic check-and-decrement
+        int reserved = 0;
+        while (reserved < lines.size()) {
+            int quantity = lines.get(reserved).getQuantity();
+            if (!drugs[reserved].tryReduce(quantity)) {
+                System.out.println("Insufficient stock for " + drugs[reserved].getName() + ". Available: "
+                        + drugs[reserved].getStockLevel() + ", Requested: " + quantity);
+                release(drugs, lines, reserved);
+                return null;
+            }
+            reserved++;
+        }
+
+        synchronized (this) {
+            List<Drug> changed = Arrays.asList(drugs); // Cart lines never repeat a drug
+            if (!drugService.saveStockChanges(changed)) {
+                System.out.println("Failed to save stock levels.");
+                release(drugs, lines, reserved);
+                drugService.saveStockChanges(changed);
+                return null;
+            }
+
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+            Transaction[] sales = new Transaction[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                String saleId = String.format("SL%03d", nextSaleNumber++);
+                sales[i] = new Transaction(saleId, drugs[i].getDrugCode(), customerId,
+                        lines.get(i).getQuantity(), drugs[i].getPrice(), now, "SALE");
+            }
+
+            if (!salesLog.append(Arrays.asList(sales))) {
+                System.err.println("Warning: sales were committed but could not be written to the sales log");
+            } else {
+                // Only logged sales are counted, as they are when these views are rebuilt from the log
+                transactionStore.addTransactions(Arrays.asList(sales));
+                for (Transaction sale : sales) {
+                    recordTopSeller(sale);
+                }
+                for (SaleListener listener : listeners) {
+                    listener.onSales(Arrays.asList(sales));
+                }
+            }
+            if (customerId != null) {
+                List<String> saleIds = new ArrayList<>();
+                for (Transaction sale : sales) {
+                    saleIds.add(sale.getTransactionId());
+                }
+                customerService.recordTransactions(customerId, saleIds);
+            }
+            return sales;
+        }
+    }
+
+    /**
+     * Add a sale to the top-seller sketch of its day
+     */
+    private void recordTopSeller(Transaction sale) {
+        long day = sale.getTimestamp().toLocalDate().toEpochDay();
+        advanceTopSellers(day);
+        if (day > topSellerDay - TOP_SELLER_DAYS) {
+            dailyTopSellers.get((int) Math.floorMod(day, (long) TOP_SELLER_DAYS)).add(sale.getDrugCode(),
+                    sale.getQuantity());
+        }
+    }
+
+    /**
+     * Move the ring forward to the given day, clearing the sketches of days it reuses
+     */
+    private void advanceTopSellers(long day) {
+        if (day - topSellerDay >= TOP_SELLER_DAYS) {
+            for (MySpaceSaving<String> sketch : dailyTopSellers) {
+                sketch.clear();
+            }
+            topSellerDay = day;
+        }
+        while (topSellerDay < day) {
+            topSellerDay++;
+            dailyTopSellers.get((int) Math.floorMod(topSellerDay, (long) TOP_SELLER_DAYS)).clear();
+        }
+    }
+
+    /**
+     * Get a sketch of the units sold per drug over the last 'days' days (including
+     * today, at most TOP_SELLER_DAYS). Counts are upper bounds; see MySpaceSaving.
+     */
+    public synchronized MySpaceSaving<String> getTopSellers(int days) {
+        advanceTopSellers(LocalDate.now().toEpochDay());
+        int span = Math.max(1, Math.min(days, TOP_SELLER_DAYS));
+        List<MySpaceSaving<String>> sketches = new ArrayList<>();
+        for (int i = 0; i < span; i++) {
+            sketches.add(dailyTopSellers.get((int) Math.floorMod(topSellerDay - i, (long) TOP_SELLER_DAYS)));
+        }
+        return MySpaceSaving.merge(TOP_SELLER_CAPACITY, sketches);
+    }
+
+    /**
+     * Give back the stock reserved for the first count lines
+     */
+    private void release(Drug[] drugs, List<Cart.Line> lines, int count) {
+        for (int i = 0; i < count; i++) {
+            drugs[i].addStock(lines.get(i).getQuantity());
+        }
+    }
+
+    /**
+     * Get sales with from <= time < to, oldest first
+     */
+    public List<Transaction> getSalesBetween(LocalDateTime from, LocalDateTime to) {
+        return salesLog.getSalesBetween(from, to);
+    }
+
+    /**
+     * Get all sales made on a given day
+     */
+    public List<Transaction> getSalesOn(LocalDate day) {
+        return salesLog.getSalesOn(day);
+    }
+
+    /**
+     * Visit every sale in the sales log, oldest segment first
+     */
+    public void forEachLoggedSale(Consumer<Transaction> action) {
+        salesLog.forEachSale(action);
+    }
+
+    /**
+     * Id of the most recent sale in the sales log, or null if there is none
+     */
+    public String getLastSaleId() {
+        return salesLog.getLastSaleId();
+    }
+
+    /**
+     * Files of the sales log, oldest first
+     */
+    public List<File> getSalesLogFiles() {
+        return salesLog.getSegmentFiles();
+    }
+
+    /**
+     * Number of sales in the sales log
+     */
+    public int getLoggedSaleCount() {
+        return salesLog.getSaleCount();
+    }
+
+    /**
+     * Revenue in cents per drug per day between two days (inclusive)
+     */
+    public TransactionStore.RevenueMatrix getRevenuePerDrugPerDay(LocalDate fromDay, LocalDate toDay) {
+        return transactionStore.getRevenuePerDrugPerDay(fromDay, toDay);
+    }
+
+    /**
+     * Revenue for a single day
+     */
+    public double getDailyRevenue(LocalDate day) {
+        return transactionStore.getDailyRevenueCents(day) / 100.0;
+    }
+
+    /**
+     * Revenue for the Monday-to-Sunday week containing the given day
+     */
+    public double getWeeklyRevenue(LocalDate day) {
+        return transactionStore.getWeeklyRevenueCents(day) / 100.0;
+    }
+
+    /**
+     * Revenue for a calendar month
+     */
+    public double getMonthlyRevenue(YearMonth month) {
+        return transactionStore.getMonthlyRevenueCents(month) / 100.0;
+    }
+
+    /**
+     * Visit the transactions with fromDay <= date < toDay in time order without collecting them
+     */
+    public void forEachTransaction(LocalDate fromDay, LocalDate toDay, Consumer<Transaction> action) {
+        transactionStore.forEachTransaction(fromDay, toDay, action);
+    }
+
+    /**
+     * Get the transactions recorded on one day, oldest first
+     */
+    public List<Transaction> getTransactionsOn(LocalDate day) {
+        return transactionStore.getTransactionsOn(day);
+    }
 }
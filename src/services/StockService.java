@@ -1,4 +1,380 @@
 package services;
 
+import models.Drug;
+import models.Transaction;
+import storage.DrugStore;
+import structures.MyDayWindow;
+import structures.MyHashMap;
+import structures.MyTimingWheel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service class for stock alerts.
+ * Every drug has two timers on a day-granularity timing wheel: one for the day
+ * it enters the "expiring soon" horizon and one for the day it becomes expired.
+ * Advancing the wheel at day rollover fires only the timers that are due, so
+ * expiry alerts are pushed without scanning the catalog, and a changed
+ * expiration date just moves the drug's two timers. Low-stock alerts are raised
+ * from the catalog change listener when a drug crosses its threshold.
+ * Sales velocity for reorder decisions comes from a per-drug sliding window of
+ * day buckets that is fed by every checkout, so 7- and 30-day totals are read
+ * in constant time instead of being recomputed from the sales history.
+ */
 public class StockService {
+    public static final int EXPIRING_SOON_DAYS = 30;
+    public static final int SHORT_WINDOW_DAYS = 7;
+    public static final int LONG_WINDOW_DAYS = 30;
+
+    /**
+     * A pushed stock alert
+     */
+    public static class StockAlert {
+        public enum Type {
+            EXPIRING_SOON, EXPIRED, LOW_STOCK
+        }
+
+        private final Type type;
+        private final Drug drug;
+        private final LocalDate date;
+
+        StockAlert(Type type, Drug drug, LocalDate date) {
+            this.type = type;
+            this.drug = drug;
+            this.date = date;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public Drug getDrug() {
+            return drug;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public String toString() {
+            switch (type) {
+                case EXPIRING_SOON:
+                    return drug.getName() + " (" + drug.getDrugCode() + ") expires on " + drug.getExpirationDate();
+                case EXPIRED:
+                    return drug.getName() + " (" + drug.getDrugCode() + ") expired on " + drug.getExpirationDate();
+                default:
+                    return drug.getName() + " (" + drug.getDrugCode() + ") is low on stock: "
+                            + drug.getStockLevel() + "/" + drug.getMinStockThreshold();
+            }
+        }
+    }
+
+    /**
+     * Timers and alert state of one drug
+     */
+    private static class Tracked {
+        final Drug drug;
+        LocalDate scheduledExpiry;
+        MyTimingWheel.Timer<Tracked> soonTimer;
+        MyTimingWheel.Timer<Tracked> expiredTimer;
+        boolean lowStock;
+
+        Tracked(Drug drug) {
+            this.drug = drug;
+        }
+    }
+
+    private MyTimingWheel<Tracked> expiryWheel; // One tick per day (epoch day)
+    private MyHashMap<String, Tracked> tracked; // Key: drugCode
+    private MyHashMap<String, Drug> expiringSoon; // Inside the horizon but not yet expired
+    private MyHashMap<String, Drug> expired;
+    private MyHashMap<String, Drug> lowStock;
+    private List<StockAlert> pendingAlerts;
+    private MyHashMap<String, MyDayWindow> unitsSold; // Key: drugCode; units sold per day
+
+    public StockService(DrugService drugService, SalesService salesService) {
+        this.expiryWheel = new MyTimingWheel<>(LocalDate.now().toEpochDay());
+        this.tracked = new MyHashMap<>();
+        this.expiringSoon = new MyHashMap<>();
+        this.expired = new MyHashMap<>();
+        this.lowStock = new MyHashMap<>();
+        this.pendingAlerts = new ArrayList<>();
+        this.unitsSold = new MyHashMap<>();
+
+        // Seed the sales windows from the part of the sales log they cover
+        LocalDate today = getCurrentDay();
+        for (Transaction sale : salesService.getSalesBetween(
+                today.minusDays(LONG_WINDOW_DAYS - 1).atStartOfDay(), today.plusDays(1).atStartOfDay())) {
+            recordSale(sale);
+        }
+        salesService.addSaleListener(sales -> {
+            for (Transaction sale : sales) {
+                recordSale(sale);
+            }
+        });
+
+        for (Drug drug : drugService.getAllDrugs()) {
+            track(drug);
+        }
+        drugService.addChangeListener(new DrugStore.DrugChangeListener() {
+            @Override
+            public void onDrugAdded(Drug drug) {
+                track(drug);
+                flushDue();
+            }
+
+            @Override
+            public void onDrugUpdated(Drug drug) {
+                Tracked entry = tracked.get(drug.getDrugCode());
+                if (entry == null) {
+                    track(drug);
+                } else {
+                    if (!drug.getExpirationDate().equals(entry.scheduledExpiry)) {
+                        scheduleExpiry(entry);
+                    }
+                    updateLowStock(entry);
+                }
+                flushDue();
+            }
+
+            @Override
+            public void onDrugRemoved(Drug drug) {
+                Tracked entry = tracked.remove(drug.getDrugCode());
+                if (entry != null) {
+                    expiryWheel.cancel(entry.soonTimer);
+                    expiryWheel.cancel(entry.expiredTimer);
+                }
+                expiringSoon.remove(drug.getDrugCode());
+                expired.remove(drug.getDrugCode());
+                lowStock.remove(drug.getDrugCode());
+                unitsSold.remove(drug.getDrugCode());
+            }
+        });
+        flushDue();
+    }
+
+    /**
+     * Start tracking a drug: schedule its expiry timers and record its stock state
+     */
+    private void track(Drug drug) {
+        Tracked entry = new Tracked(drug);
+        tracked.put(drug.getDrugCode(), entry);
+        scheduleExpiry(entry);
+        updateLowStock(entry);
+    }
+
+    /**
+     * (Re)schedule a drug's two timers for its current expiration date.
+     * A drug is expired from the day after its expiration date (see Drug.isExpired).
+     */
+    private void scheduleExpiry(Tracked entry) {
+        LocalDate expiry = entry.drug.getExpirationDate();
+        entry.scheduledExpiry = expiry;
+        expiringSoon.remove(entry.drug.getDrugCode());
+        expired.remove(entry.drug.getDrugCode());
+
+        long soonDay = expiry.minusDays(EXPIRING_SOON_DAYS).toEpochDay();
+        long expiredDay = expiry.plusDays(1).toEpochDay();
+        if (entry.soonTimer == null) {
+            entry.soonTimer = expiryWheel.schedule(entry, soonDay);
+            entry.expiredTimer = expiryWheel.schedule(entry, expiredDay);
+        } else {
+            expiryWheel.reschedule(entry.soonTimer, soonDay);
+            expiryWheel.reschedule(entry.expiredTimer, expiredDay);
+        }
+    }
+
+    /**
+     * Raise a low-stock alert when a drug drops to its threshold
+     */
+    private void updateLowStock(Tracked entry) {
+        boolean low = entry.drug.isLowStock();
+        if (low && !entry.lowStock) {
+            lowStock.put(entry.drug.getDrugCode(), entry.drug);
+            pendingAlerts.add(new StockAlert(StockAlert.Type.LOW_STOCK, entry.drug, getCurrentDay()));
+        } else if (!low && entry.lowStock) {
+            lowStock.remove(entry.drug.getDrugCode());
+        }
+        entry.lowStock = low;
+    }
+
+    /**
+     * Called by the wheel for either of a drug's timers. The state is derived from
+     * the dates, so a drug that is already expired when first scheduled only gets
+     * the EXPIRED alert even though both its timers are due.
+     */
+    private void onTimer(Tracked entry) {
+        String drugCode = entry.drug.getDrugCode();
+        LocalDate today = getCurrentDay();
+        LocalDate expiry = entry.drug.getExpirationDate();
+        if (today.isAfter(expiry)) {
+            if (!expired.containsKey(drugCode)) {
+                expiringSoon.remove(drugCode);
+                expired.put(drugCode, entry.drug);
+                pendingAlerts.add(new StockAlert(StockAlert.Type.EXPIRED, entry.drug, today));
+            }
+        } else if (!today.isBefore(expiry.minusDays(EXPIRING_SOON_DAYS)) && !expiringSoon.containsKey(drugCode)) {
+            expiringSoon.put(drugCode, entry.drug);
+            pendingAlerts.add(new StockAlert(StockAlert.Type.EXPIRING_SOON, entry.drug, today));
+        }
+    }
+
+    /**
+     * Add a sale to its drug's sales window
+     */
+    private void recordSale(Transaction sale) {
+        MyDayWindow window = unitsSold.get(sale.getDrugCode());
+        if (window == null) {
+            window = new MyDayWindow(expiryWheel.getCurrentTick(), SHORT_WINDOW_DAYS, LONG_WINDOW_DAYS);
+            unitsSold.put(sale.getDrugCode(), window);
+        }
+        window.add(sale.getTimestamp().toLocalDate().toEpochDay(), sale.getQuantity());
+    }
+
+    /**
+     * Get a drug's sales window moved up to the alert clock, or null if it has no recent sales
+     */
+    private MyDayWindow salesWindow(String drugCode) {
+        MyDayWindow window = unitsSold.get(drugCode);
+        if (window != null) {
+            window.advanceTo(expiryWheel.getCurrentTick());
+        }
+        return window;
+    }
+
+    /**
+     * Get the units of a drug sold in the last SHORT_WINDOW_DAYS or LONG_WINDOW_DAYS days (including today)
+     */
+    public long getUnitsSold(String drugCode, int days) {
+        MyDayWindow window = salesWindow(drugCode);
+        return window != null ? window.getTotal(days) : 0;
+    }
+
+    /**
+     * Get the average units of a drug sold per day over the last SHORT_WINDOW_DAYS or LONG_WINDOW_DAYS days
+     */
+    public double getAverageDailySales(String drugCode, int days) {
+        MyDayWindow window = salesWindow(drugCode);
+        return window != null ? window.getAverage(days) : 0;
+    }
+
+    /**
+     * Estimate how many days the current stock lasts at the 30-day sales rate
+     *
+     * @return the number of days, or -1 if the drug has not sold in that period
+     */
+    public double getDaysOfStockLeft(Drug drug) {
+        double perDay = getAverageDailySales(drug.getDrugCode(), LONG_WINDOW_DAYS);
+        return perDay > 0 ? drug.getStockLevel() / perDay : -1;
+    }
+
+    /**
+     * Get the drugs sold in the last LONG_WINDOW_DAYS days, fastest selling first
+     */
+    public String[] getRecentlySoldDrugCodes() {
+        List<String> codes = new ArrayList<>();
+        for (Object codeObj : unitsSold.keySet()) {
+            String drugCode = (String) codeObj;
+            if (salesWindow(drugCode).isEmpty()) {
+                unitsSold.remove(drugCode); // Nothing left in the window
+            } else {
+                codes.add(drugCode);
+            }
+        }
+        codes.sort(Comparator.comparingLong((String code) -> getUnitsSold(code, LONG_WINDOW_DAYS)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return codes.toArray(new String[0]);
+    }
+
+    /**
+     * Fire timers that are already due without moving the clock
+     */
+    private void flushDue() {
+        expiryWheel.advanceTo(expiryWheel.getCurrentTick(), this::onTimer);
+    }
+
+    /**
+     * Advance the alert clock to today if the date has changed since the last check
+     *
+     * @return the number of alerts waiting to be shown
+     */
+    public int checkForRollover() {
+        return advanceTo(LocalDate.now());
+    }
+
+    /**
+     * Advance the alert clock to the given day, pushing the alerts that became due
+     *
+     * @return the number of alerts waiting to be shown
+     */
+    public int advanceTo(LocalDate day) {
+        expiryWheel.advanceTo(day.toEpochDay(), this::onTimer);
+        return pendingAlerts.size();
+    }
+
+    /**
+     * Get the day the alert clock is at
+     */
+    public LocalDate getCurrentDay() {
+        return LocalDate.ofEpochDay(expiryWheel.getCurrentTick());
+    }
+
+    /**
+     * Get the number of alerts waiting to be shown
+     */
+    public int getPendingAlertCount() {
+        return pendingAlerts.size();
+    }
+
+    /**
+     * Take the alerts pushed since the last call, oldest first
+     */
+    public List<StockAlert> drainAlerts() {
+        List<StockAlert> alerts = pendingAlerts;
+        pendingAlerts = new ArrayList<>();
+        return alerts;
+    }
+
+    /**
+     * Get the expired drugs, earliest expiry first
+     */
+    public Drug[] getExpiredDrugs() {
+        return byExpiry(expired);
+    }
+
+    /**
+     * Get drugs expiring within EXPIRING_SOON_DAYS, earliest expiry first
+     */
+    public Drug[] getExpiringSoonDrugs() {
+        return byExpiry(expiringSoon);
+    }
+
+    /**
+     * Get the drugs at or below their stock threshold
+     */
+    public Drug[] getLowStockDrugs() {
+        Drug[] drugs = toDrugs(lowStock);
+        Arrays.sort(drugs, Comparator.comparing(Drug::getDrugCode));
+        return drugs;
+    }
+
+    private static Drug[] byExpiry(MyHashMap<String, Drug> drugs) {
+        Drug[] result = toDrugs(drugs);
+        Arrays.sort(result, Comparator.comparing(Drug::getExpirationDate).thenComparing(Drug::getDrugCode));
+        return result;
+    }
+
+    private static Drug[] toDrugs(MyHashMap<String, Drug> drugs) {
+        Object[] values = drugs.values();
+        Drug[] result = new Drug[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (Drug) values[i];
+        }
+        return result;
+    }
 }
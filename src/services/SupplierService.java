@@ -1,4 +1,193 @@
 package services;
 
+import models.Drug;
+import models.Supplier;
+import storage.DrugStore;
+import storage.SupllierStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for supplier operations.
+ * The supplier-drug relation is owned by the drug catalog; this service reads
+ * it, keeps the per-drug supplier trees in sync through a change listener, and
+ * links and unlinks through DrugService so drugs.txt stays its only saved copy.
+ */
 public class SupplierService {
+    private DrugService drugService;
+    private SupllierStore supplierStore;
+
+    public SupplierService(DrugService drugService) {
+        this.drugService = drugService;
+        this.supplierStore = new SupllierStore(drugService.getSupplierLinks());
+
+        for (Drug drug : drugService.getAllDrugs()) {
+            supplierStore.refreshDrug(drug.getDrugCode());
+        }
+        drugService.addChangeListener(new DrugStore.DrugChangeListener() {
+            @Override
+            public void onDrugAdded(Drug drug) {
+                supplierStore.refreshDrug(drug.getDrugCode());
+            }
+
+            @Override
+            public void onDrugUpdated(Drug drug) {
+                supplierStore.refreshDrug(drug.getDrugCode());
+            }
+
+            @Override
+            public void onDrugRemoved(Drug drug) {
+                supplierStore.removeDrug(drug.getDrugCode());
+            }
+        });
+    }
+
+    /**
+     * Register a new supplier under the next free ID (S001, S002, ...)
+     *
+     * @return the new supplier, or null if it could not be saved
+     */
+    public Supplier addSupplier(String name, String contact, String location, int deliveryTurnaroundDays) {
+        if (supplierStore.getSupplierByName(name) != null) {
+            System.out.println("A supplier named " + name + " is already registered.");
+            return null;
+        }
+
+        Supplier supplier = new Supplier(generateSupplierId(), name, contact, location, deliveryTurnaroundDays);
+        if (supplierStore.addSupplier(supplier)) {
+            System.out.println("Supplier added successfully: " + supplier.getSupplierId());
+            return supplier;
+        } else {
+            System.out.println("Failed to add supplier.");
+            return null;
+        }
+    }
+
+    private String generateSupplierId() {
+        int number = supplierStore.getSupplierCount() + 1;
+        while (supplierStore.supplierExists(String.format("S%03d", number))) {
+            number++;
+        }
+        return String.format("S%03d", number);
+    }
+
+    /**
+     * Update a supplier's contact, location and delivery turnaround.
+     * The name stays fixed because drugs.txt refers to suppliers by name.
+     */
+    public boolean updateSupplier(String supplierId, String contact, String location, int deliveryTurnaroundDays) {
+        Supplier existing = supplierStore.getSupplier(supplierId);
+        if (existing == null) {
+            System.out.println("Supplier with ID " + supplierId + " not found.");
+            return false;
+        }
+
+        Supplier updated = new Supplier(supplierId, existing.getName(), contact, location, deliveryTurnaroundDays);
+        updated.setEmail(existing.getEmail());
+        return supplierStore.updateSupplier(updated);
+    }
+
+    /**
+     * Remove a supplier
+     */
+    public boolean removeSupplier(String supplierId) {
+        if (!supplierStore.removeSupplier(supplierId)) {
+            System.out.println("Supplier with ID " + supplierId + " not found.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get supplier by ID
+     */
+    public Supplier getSupplier(String supplierId) {
+        return supplierStore.getSupplier(supplierId);
+    }
+
+    /**
+     * Get all registered suppliers, fastest delivery first
+     */
+    public Supplier[] getSuppliersByTurnaround() {
+        return supplierStore.getSuppliersByTurnaround();
+    }
+
+    /**
+     * Get the registered supplier with the fastest delivery for a drug, or null if none
+     */
+    public Supplier getFastestSupplier(String drugCode) {
+        return supplierStore.getFastestSupplier(drugCode);
+    }
+
+    /**
+     * Get the registered suppliers of a drug, fastest delivery first
+     */
+    public Supplier[] getRegisteredSuppliersOfDrug(String drugCode) {
+        return supplierStore.getRegisteredSuppliersOfDrug(drugCode);
+    }
+
+    /**
+     * Get supplier count
+     */
+    public int getSupplierCount() {
+        return supplierStore.getSupplierCount();
+    }
+
+    /**
+     * Record that a supplier supplies a drug
+     */
+    public boolean linkDrug(String supplier, String drugCode) {
+        if (supplierStore.suppliesDrug(supplier, drugCode)) {
+            System.out.println(supplier + " already supplies " + drugCode + ".");
+            return true;
+        }
+        return drugService.addSupplierToDrug(drugCode, supplier);
+    }
+
+    /**
+     * Record that a supplier no longer supplies a drug
+     */
+    public boolean unlinkDrug(String supplier, String drugCode) {
+        if (!supplierStore.suppliesDrug(supplier, drugCode)) {
+            System.out.println(supplier + " does not supply " + drugCode + ".");
+            return false;
+        }
+        return drugService.removeSupplierFromDrug(drugCode, supplier);
+    }
+
+    /**
+     * Check if a supplier supplies a drug
+     */
+    public boolean suppliesDrug(String supplier, String drugCode) {
+        return supplierStore.suppliesDrug(supplier, drugCode);
+    }
+
+    /**
+     * Get the drugs a supplier supplies
+     */
+    public Drug[] getDrugsSuppliedBy(String supplier) {
+        List<Drug> drugs = new ArrayList<>();
+        for (String drugCode : supplierStore.getDrugCodes(supplier)) {
+            Drug drug = drugService.getDrug(drugCode);
+            if (drug != null) {
+                drugs.add(drug);
+            }
+        }
+        return drugs.toArray(new Drug[0]);
+    }
+
+    /**
+     * Get the names of the suppliers of a drug
+     */
+    public String[] getSuppliersOfDrug(String drugCode) {
+        return supplierStore.getSuppliersOfDrug(drugCode);
+    }
+
+    /**
+     * Get the number of drugs a supplier supplies
+     */
+    public int getDrugCount(String supplier) {
+        return supplierStore.getDrugCount(supplier);
+    }
 }
@@ -1,4 +1,431 @@
 package storage;
 
+import models.Customer;
+import structures.MyHashMap;
+import utils.FileUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Storage class for Customer data persistence.
+ * Besides the ID map it keeps a hashed index of digits-only phone numbers and
+ * a hashed index of lowercase name tokens. Partial words are resolved through
+ * a prefix map over the distinct tokens, which stays small because names repeat,
+ * so counter lookups cost a few hash probes however many customers are registered.
+ * Sales recorded in a customer's history are appended to a small journal rather
+ * than rewriting customers.txt; the journal is folded in on load and emptied
+ * whenever the full file is written.
+ */
 public class CustomerStore {
+    private static final String CUSTOMERS_FILE = "customers.txt";
+    private static final String HISTORY_FILE = "customer_history.txt"; // Journal: customerId|transactionIds
+    private static final int COMPACT_SLACK = 1024; // Journal lines tolerated beyond one per customer
+    private static final String[] NO_TOKENS = new String[0];
+
+    private MyHashMap<String, Customer> customerMap; // Key: customerId, Value: Customer
+    private MyHashMap<String, Customer[]> phoneIndex; // Key: digits-only phone number (shared numbers are rare)
+    private MyHashMap<String, Set<Customer>> tokenIndex; // Key: lowercase name token
+    private MyHashMap<String, Set<String>> tokenPrefixes; // Key: prefix, Value: indexed tokens starting with it
+    private MyHashMap<String, String[]> indexedKeys; // Key: customerId, Value: {phone, token, token, ...} as indexed
+    private int historyLines; // Lines in the history journal, to decide when to compact
+
+    public CustomerStore() {
+        loadCustomers();
+    }
+
+    /**
+     * Load customers from file, sizing the maps for the file up front
+     */
+    private void loadCustomers() {
+        List<String> lines = FileUtils.readLines(CUSTOMERS_FILE);
+
+        int capacity = Math.max(16, lines.size() * 2);
+        this.customerMap = new MyHashMap<>(capacity);
+        this.phoneIndex = new MyHashMap<>(capacity);
+        this.tokenIndex = new MyHashMap<>();
+        this.tokenPrefixes = new MyHashMap<>();
+        this.indexedKeys = new MyHashMap<>(capacity);
+
+        for (String line : lines) {
+            if (line.startsWith("#") || line.trim().isEmpty()) {
+                continue; // Skip comments and empty lines
+            }
+
+            Customer customer = parseCustomerFromLine(line);
+            if (customer != null) {
+                customerMap.put(customer.getCustomerId(), customer);
+                index(customer);
+            }
+        }
+        loadHistory();
+    }
+
+    /**
+     * Fold the history journal into the loaded customers. IDs already in a history
+     * are skipped, in case the journal outlived a full write that included them.
+     */
+    private void loadHistory() {
+        historyLines = 0;
+        if (!FileUtils.fileExists(HISTORY_FILE)) {
+            return;
+        }
+
+        for (String line : FileUtils.readLines(HISTORY_FILE)) {
+            if (line.startsWith("#") || line.trim().isEmpty()) {
+                continue;
+            }
+            historyLines++;
+            String[] fields = line.split("\\|", -1);
+            Customer customer = fields.length == 2 ? customerMap.get(fields[0].trim()) : null;
+            if (customer == null) {
+                System.err.println("Error parsing customer history line: " + line);
+                continue;
+            }
+            for (String transactionId : fields[1].split(",")) {
+                if (!transactionId.trim().isEmpty() && !customer.hasTransaction(transactionId.trim())) {
+                    customer.addTransaction(transactionId.trim());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parse a customer from a line: customerId|name|contact|transactionIds
+     */
+    private Customer parseCustomerFromLine(String line) {
+        try {
+            String[] fields = line.split("\\|", -1);
+            if (fields.length < 3) {
+                return null;
+            }
+
+            Customer customer = new Customer(fields[0].trim(), fields[1].trim(), fields[2].trim());
+            if (fields.length > 3) {
+                for (String transactionId : fields[3].split(",")) {
+                    if (!transactionId.trim().isEmpty()) {
+                        customer.addTransaction(transactionId.trim());
+                    }
+                }
+            }
+            return customer;
+        } catch (Exception e) {
+            System.err.println("Error parsing customer line: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convert customer to a pipe-delimited line
+     */
+    private String customerToLine(Customer customer) {
+        return customer.getCustomerId() + "|" + customer.getName() + "|"
+                + (customer.getContact() != null ? customer.getContact() : "") + "|"
+                + String.join(",", customer.getTransactionHistory());
+    }
+
+    /**
+     * Save all customers to file
+     */
+    public boolean saveCustomers() {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Format: customerId|name|contact|transactionIds (comma-separated)");
+
+        for (Object customerIdObj : customerMap.keySet()) {
+            if (customerIdObj != null) {
+                Customer customer = customerMap.get((String) customerIdObj);
+                if (customer != null) {
+                    lines.add(customerToLine(customer));
+                }
+            }
+        }
+
+        if (!FileUtils.writeLines(CUSTOMERS_FILE, lines)) {
+            return false;
+        }
+        // The full file now holds every journaled history entry
+        if (historyLines > 0 && FileUtils.deleteFile(HISTORY_FILE)) {
+            historyLines = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Add a new customer
+     */
+    public boolean addCustomer(Customer customer) {
+        if (customer == null || customerMap.containsKey(customer.getCustomerId())) {
+            return false;
+        }
+
+        customerMap.put(customer.getCustomerId(), customer);
+        index(customer);
+        return saveCustomers();
+    }
+
+    /**
+     * Update an existing customer
+     */
+    public boolean updateCustomer(Customer customer) {
+        if (customer == null || !customerMap.containsKey(customer.getCustomerId())) {
+            return false;
+        }
+
+        Customer previous = customerMap.get(customer.getCustomerId());
+        unindex(previous);
+        customerMap.put(customer.getCustomerId(), customer);
+        index(customer);
+        return saveCustomers();
+    }
+
+    /**
+     * Remove a customer
+     */
+    public boolean removeCustomer(String customerId) {
+        if (customerId == null) {
+            return false;
+        }
+        Customer removed = customerMap.remove(customerId);
+        if (removed == null) {
+            return false;
+        }
+        unindex(removed);
+        return saveCustomers();
+    }
+
+    /**
+     * Add a customer's phone number and name tokens to the lookup indexes
+     */
+    private void index(Customer customer) {
+        String phone = FileUtils.normalizePhoneNumber(customer.getContact());
+        String[] tokens = nameTokens(customer.getName());
+        String[] keys = new String[tokens.length + 1];
+        keys[0] = phone;
+        System.arraycopy(tokens, 0, keys, 1, tokens.length);
+        indexedKeys.put(customer.getCustomerId(), keys);
+
+        if (!phone.isEmpty()) {
+            Customer[] sharing = phoneIndex.get(phone);
+            if (sharing == null) {
+                phoneIndex.put(phone, new Customer[] { customer });
+            } else {
+                Customer[] grown = Arrays.copyOf(sharing, sharing.length + 1);
+                grown[sharing.length] = customer;
+                phoneIndex.put(phone, grown);
+            }
+        }
+        for (String token : tokens) {
+            if (tokenIndex.get(token) == null) {
+                for (int length = 1; length <= token.length(); length++) {
+                    addTo(tokenPrefixes, token.substring(0, length), token);
+                }
+            }
+            addTo(tokenIndex, token, customer);
+        }
+    }
+
+    /**
+     * Remove a customer from the lookup indexes, using the keys it was indexed under
+     * (the customer object may already have been changed in place)
+     */
+    private void unindex(Customer customer) {
+        if (customer == null) {
+            return;
+        }
+        String[] keys = indexedKeys.remove(customer.getCustomerId());
+        if (keys == null) {
+            return;
+        }
+
+        Customer[] sharing = phoneIndex.get(keys[0]);
+        if (sharing != null) {
+            List<Customer> remaining = new ArrayList<>(Arrays.asList(sharing));
+            remaining.remove(customer);
+            if (remaining.isEmpty()) {
+                phoneIndex.remove(keys[0]);
+            } else {
+                phoneIndex.put(keys[0], remaining.toArray(new Customer[0]));
+            }
+        }
+        for (int i = 1; i < keys.length; i++) {
+            String token = keys[i];
+            removeFrom(tokenIndex, token, customer);
+            if (tokenIndex.get(token) == null) {
+                for (int length = 1; length <= token.length(); length++) {
+                    removeFrom(tokenPrefixes, token.substring(0, length), token);
+                }
+            }
+        }
+    }
+
+    private static <T> void addTo(MyHashMap<String, Set<T>> index, String key, T value) {
+        Set<T> values = index.get(key);
+        if (values == null) {
+            values = new LinkedHashSet<>();
+            index.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private static <T> void removeFrom(MyHashMap<String, Set<T>> index, String key, T value) {
+        Set<T> values = index.get(key);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Split a name into distinct lowercase letter/digit tokens
+     */
+    private static String[] nameTokens(String name) {
+        if (name == null) {
+            return NO_TOKENS;
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = name.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens.toArray(NO_TOKENS);
+    }
+
+    /**
+     * Find customers by phone number, ignoring spaces, dashes and other formatting
+     */
+    public Customer[] findByPhone(String phone) {
+        Customer[] customers = phoneIndex.get(FileUtils.normalizePhoneNumber(phone));
+        return customers != null ? customers.clone() : new Customer[0];
+    }
+
+    /**
+     * Find customers whose name has a word starting with each word of the query
+     * (e.g. "kof as" finds "Kofi Asante"), in any order
+     */
+    public Customer[] searchByName(String query) {
+        String[] queryTokens = nameTokens(query);
+        if (queryTokens.length == 0) {
+            return new Customer[0];
+        }
+
+        // Candidates come from the query word matching the fewest customers
+        Set<String> narrowest = null;
+        int narrowestCount = Integer.MAX_VALUE;
+        for (String queryToken : queryTokens) {
+            Set<String> tokens = tokenPrefixes.get(queryToken);
+            if (tokens == null) {
+                return new Customer[0];
+            }
+            int count = 0;
+            for (String token : tokens) {
+                count += tokenIndex.get(token).size();
+            }
+            if (count < narrowestCount) {
+                narrowest = tokens;
+                narrowestCount = count;
+            }
+        }
+
+        Set<Customer> matches = new LinkedHashSet<>();
+        for (String token : narrowest) {
+            for (Customer customer : tokenIndex.get(token)) {
+                if (matchesAll(indexedKeys.get(customer.getCustomerId()), queryTokens)) {
+                    matches.add(customer);
+                }
+            }
+        }
+        return matches.toArray(new Customer[0]);
+    }
+
+    /**
+     * Check that every query word starts one of the indexed name tokens
+     */
+    private static boolean matchesAll(String[] keys, String[] queryTokens) {
+        for (String queryToken : queryTokens) {
+            boolean found = false;
+            for (int i = 1; i < keys.length && !found; i++) {
+                found = keys[i].startsWith(queryToken);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append transaction IDs to a customer's history with one journal line,
+     * compacting the journal into customers.txt once it grows past the slack
+     */
+    public boolean addTransactions(String customerId, List<String> transactionIds) {
+        Customer customer = customerMap.get(customerId);
+        if (customer == null) {
+            return false;
+        }
+
+        for (String transactionId : transactionIds) {
+            customer.addTransaction(transactionId);
+        }
+        if (historyLines + 1 > customerMap.size() + COMPACT_SLACK) {
+            return saveCustomers();
+        }
+        if (!FileUtils.appendLine(HISTORY_FILE, customerId + "|" + String.join(",", transactionIds))) {
+            return false;
+        }
+        historyLines++;
+        return true;
+    }
+
+    /**
+     * Get customer by ID
+     */
+    public Customer getCustomer(String customerId) {
+        return customerMap.get(customerId);
+    }
+
+    /**
+     * Get all customers
+     */
+    public Customer[] getAllCustomers() {
+        List<Customer> customers = new ArrayList<>();
+        for (Object customerIdObj : customerMap.keySet()) {
+            if (customerIdObj != null) {
+                Customer customer = customerMap.get((String) customerIdObj);
+                if (customer != null) {
+                    customers.add(customer);
+                }
+            }
+        }
+        return customers.toArray(new Customer[0]);
+    }
+
+    /**
+     * Check if customer exists
+     */
+    public boolean customerExists(String customerId) {
+        return customerMap.containsKey(customerId);
+    }
+
+    /**
+     * Get customer count
+     */
+    public int getCustomerCount() {
+        return customerMap.size();
+    }
 }
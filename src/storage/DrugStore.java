@@ -1,6 +1,7 @@
 package storage;
 
 import models.Drug;
+import structures.MyBiMultiMap;
 import structures.MyHashMap;
 import utils.FileUtils;
 
@@ -9,17 +10,45 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Storage class for Drug data persistence
+ * Storage class for Drug data persistence.
+ * Every method holds the store's lock, and listeners are called with it held,
+ * so callers that read listener-maintained state lock the store as well.
+ * The store owns the supplier-drug relation: stored drugs read and write their
+ * suppliers in it, and it is persisted as the supplier columns of drugs.txt.
  */
 public class DrugStore {
     private static final String DRUGS_FILE = "drugs.txt";
     private MyHashMap<String, Drug> drugMap; // Key: drugCode, Value: Drug
+    private MyBiMultiMap<String, String> supplierLinks; // Left: supplier name, Right: drug code
+    private long version; // Incremented on every mutation so callers can detect stale views
+    private List<DrugChangeListener> listeners;
+
+    /**
+     * Callback for components that keep derived indexes over the drug catalog.
+     * Updates are reported after the drug object has been changed in place.
+     */
+    public interface DrugChangeListener {
+        void onDrugAdded(Drug drug);
+
+        void onDrugUpdated(Drug drug);
+
+        void onDrugRemoved(Drug drug);
+    }
 
     public DrugStore() {
         this.drugMap = new MyHashMap<>();
+        this.supplierLinks = new MyBiMultiMap<>();
+        this.listeners = new ArrayList<>();
         loadDrugs();
     }
 
+    /**
+     * Register a listener to be told about every catalog mutation
+     */
+    public synchronized void addChangeListener(DrugChangeListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * Load drugs from file
      */
@@ -33,6 +62,7 @@ public class DrugStore {
 
             Drug drug = parseDrugFromLine(line);
             if (drug != null) {
+                drug.attachSupplierLinks(supplierLinks);
                 drugMap.put(drug.getDrugCode(), drug);
             }
         }
@@ -97,7 +127,7 @@ public class DrugStore {
     /**
      * Save all drugs to file
      */
-    public boolean saveDrugs() {
+    public synchronized boolean saveDrugs() {
         List<String> lines = new ArrayList<>();
         lines.add("# Drug Code,Name,Price,Stock Level,Expiration Date,Min Threshold,Suppliers");
 
@@ -118,50 +148,95 @@ public class DrugStore {
     /**
      * Add a new drug
      */
-    public boolean addDrug(Drug drug) {
+    public synchronized boolean addDrug(Drug drug) {
         if (drug == null || drugMap.containsKey(drug.getDrugCode())) {
             return false;
         }
 
+        drug.attachSupplierLinks(supplierLinks);
         drugMap.put(drug.getDrugCode(), drug);
+        version++;
+        for (DrugChangeListener listener : listeners) {
+            listener.onDrugAdded(drug);
+        }
         return saveDrugs();
     }
 
     /**
      * Update an existing drug
      */
-    public boolean updateDrug(Drug drug) {
+    public synchronized boolean updateDrug(Drug drug) {
         if (drug == null || !drugMap.containsKey(drug.getDrugCode())) {
             return false;
         }
 
+        drug.attachSupplierLinks(supplierLinks);
         drugMap.put(drug.getDrugCode(), drug);
+        version++;
+        for (DrugChangeListener listener : listeners) {
+            listener.onDrugUpdated(drug);
+        }
+        return saveDrugs();
+    }
+
+    /**
+     * Update several existing drugs and write the file once.
+     * Nothing is changed if any drug is unknown.
+     */
+    public synchronized boolean updateDrugs(List<Drug> drugs) {
+        if (drugs == null) {
+            return false;
+        }
+        for (Drug drug : drugs) {
+            if (drug == null || !drugMap.containsKey(drug.getDrugCode())) {
+                return false;
+            }
+        }
+        if (drugs.isEmpty()) {
+            return true;
+        }
+
+        for (Drug drug : drugs) {
+            drug.attachSupplierLinks(supplierLinks);
+            drugMap.put(drug.getDrugCode(), drug);
+        }
+        version++;
+        for (Drug drug : drugs) {
+            for (DrugChangeListener listener : listeners) {
+                listener.onDrugUpdated(drug);
+            }
+        }
         return saveDrugs();
     }
 
     /**
      * Remove a drug
      */
-    public boolean removeDrug(String drugCode) {
+    public synchronized boolean removeDrug(String drugCode) {
         if (drugCode == null || !drugMap.containsKey(drugCode)) {
             return false;
         }
 
-        drugMap.remove(drugCode);
+        Drug removed = drugMap.remove(drugCode);
+        supplierLinks.removeRight(drugCode);
+        version++;
+        for (DrugChangeListener listener : listeners) {
+            listener.onDrugRemoved(removed);
+        }
         return saveDrugs();
     }
 
     /**
      * Get drug by code
      */
-    public Drug getDrug(String drugCode) {
+    public synchronized Drug getDrug(String drugCode) {
         return drugMap.get(drugCode);
     }
 
     /**
      * Get all drugs
      */
-    public Drug[] getAllDrugs() {
+    public synchronized Drug[] getAllDrugs() {
         List<Drug> drugs = new ArrayList<>();
         Object[] drugCodes = drugMap.keySet();
 
@@ -181,34 +256,14 @@ public class DrugStore {
     /**
      * Check if drug exists
      */
-    public boolean drugExists(String drugCode) {
+    public synchronized boolean drugExists(String drugCode) {
         return drugMap.containsKey(drugCode);
     }
 
-    /**
-     * Get drugs by supplier
-     */
-    public Drug[] getDrugsBySupplier(String supplier) {
-        List<Drug> drugs = new ArrayList<>();
-        Object[] drugCodes = drugMap.keySet();
-
-        for (Object drugCodeObj : drugCodes) {
-            if (drugCodeObj != null) {
-                String drugCode = (String) drugCodeObj;
-                Drug drug = drugMap.get(drugCode);
-                if (drug != null && drug.hasSupplier(supplier)) {
-                    drugs.add(drug);
-                }
-            }
-        }
-
-        return drugs.toArray(new Drug[0]);
-    }
-
     /**
      * Get low stock drugs
      */
-    public Drug[] getLowStockDrugs() {
+    public synchronized Drug[] getLowStockDrugs() {
         List<Drug> lowStockDrugs = new ArrayList<>();
         Object[] drugCodes = drugMap.keySet();
 
@@ -228,7 +283,7 @@ public class DrugStore {
     /**
      * Get expired drugs
      */
-    public Drug[] getExpiredDrugs() {
+    public synchronized Drug[] getExpiredDrugs() {
         List<Drug> expiredDrugs = new ArrayList<>();
         Object[] drugCodes = drugMap.keySet();
 
@@ -245,10 +300,25 @@ public class DrugStore {
         return expiredDrugs.toArray(new Drug[0]);
     }
 
+    /**
+     * Get the supplier-drug relation (left: supplier name, right: drug code).
+     * Change it only through stored drugs, with the store locked.
+     */
+    public synchronized MyBiMultiMap<String, String> getSupplierLinks() {
+        return supplierLinks;
+    }
+
+    /**
+     * Get the mutation version of the store
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
     /**
      * Get count of drugs
      */
-    public int getDrugCount() {
+    public synchronized int getDrugCount() {
         return drugMap.size();
     }
 }
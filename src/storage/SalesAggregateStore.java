@@ -0,0 +1,302 @@
+package storage;
+
+import models.SalesSummary;
+import models.Transaction;
+import structures.MyHashMap;
+import utils.FileUtils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized per-day, per-drug sales totals (quantity, revenue in cents and
+ * number of sales), kept next to the sales log in data/saleslog/aggregates.txt.
+ * Every checkout appends one delta line per (day, drug) it touched followed by a
+ * watermark line naming the last sale folded in; deltas are summed on load and
+ * only count once their watermark is present, so a torn append is ignored. Day
+ * buckets roll up into month buckets as they are updated, so daily, monthly and
+ * yearly totals are read without touching the sales log.
+ */
+public class SalesAggregateStore {
+    private static final String FILE_NAME = "saleslog/aggregates.txt";
+    private static final String HEADER = "# Format: D|day|drugCode|quantity|revenueCents|sales (deltas, summed on load)"
+            + " and W|lastSaleId|saleCount after each batch";
+    private static final int COMPACT_SLACK = 1024; // Extra lines tolerated before the file is rewritten
+
+    private MyHashMap<Long, MyHashMap<String, long[]>> days; // Key: epoch day; value: drugCode -> {qty, cents, sales}
+    private MyHashMap<Integer, MyHashMap<String, long[]>> months; // Key: year * 12 + month - 1
+    private int dayBuckets; // Number of (day, drug) buckets
+    private int fileLines; // Data lines in the file, to decide when to compact
+    private String lastSaleId;
+    private int saleCount;
+    private boolean loaded; // False if the file was missing, unreadable or missed a batch
+
+    public SalesAggregateStore() {
+        FileUtils.getDataFile(FILE_NAME).getParentFile().mkdirs();
+        clearBuckets();
+        load();
+    }
+
+    private void clearBuckets() {
+        this.days = new MyHashMap<>();
+        this.months = new MyHashMap<>();
+        this.dayBuckets = 0;
+        this.lastSaleId = null;
+        this.saleCount = 0;
+    }
+
+    /**
+     * Fold the committed delta lines of the aggregate file into memory
+     */
+    private void load() {
+        if (!FileUtils.fileExists(FILE_NAME)) {
+            loaded = false;
+            return;
+        }
+
+        List<String[]> uncommitted = new ArrayList<>();
+        for (String line : FileUtils.readLines(FILE_NAME)) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            fileLines++;
+            String[] parts = line.split("\\|");
+            if (parts[0].equals("D") && parts.length == 6) {
+                uncommitted.add(parts);
+            } else if (parts[0].equals("W") && parts.length == 3) {
+                try {
+                    for (String[] delta : uncommitted) {
+                        addToBuckets(LocalDate.parse(delta[1]).toEpochDay(), delta[2], Long.parseLong(delta[3]),
+                                Long.parseLong(delta[4]), Long.parseLong(delta[5]));
+                    }
+                    lastSaleId = parts[1].isEmpty() ? null : parts[1];
+                    saleCount = Integer.parseInt(parts[2]);
+                } catch (RuntimeException e) {
+                    System.err.println("Error parsing sales aggregates: " + e.getMessage());
+                    loaded = false;
+                    return;
+                }
+                uncommitted.clear();
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Check if the aggregates cover exactly the given state of the sales log
+     */
+    public synchronized boolean isInSync(String logLastSaleId, int logSaleCount) {
+        return loaded && saleCount == logSaleCount
+                && (lastSaleId == null ? logLastSaleId == null : lastSaleId.equals(logLastSaleId));
+    }
+
+    /**
+     * Start a rebuild: drop every bucket. Feed the log back with fold() and finish with save().
+     */
+    public synchronized void clear() {
+        clearBuckets();
+    }
+
+    /**
+     * Add one logged sale to the in-memory buckets without persisting it (used by rebuilds)
+     */
+    public synchronized void fold(Transaction sale) {
+        addToBuckets(sale.getTimestamp().toLocalDate().toEpochDay(), sale.getDrugCode(), sale.getQuantity(),
+                toCents(sale), 1);
+        lastSaleId = sale.getTransactionId();
+        saleCount++;
+    }
+
+    /**
+     * Add a committed checkout to the buckets and append its deltas to the file
+     */
+    public synchronized boolean add(List<Transaction> sales) {
+        if (sales.isEmpty()) {
+            return true;
+        }
+
+        // Merge the batch first, so a cart with several lines of one drug writes one delta
+        MyHashMap<String, long[]> batch = new MyHashMap<>();
+        List<String> keys = new ArrayList<>(); // Insertion order for a stable file
+        for (Transaction sale : sales) {
+            long day = sale.getTimestamp().toLocalDate().toEpochDay();
+            String key = day + "|" + sale.getDrugCode();
+            long[] delta = batch.get(key);
+            if (delta == null) {
+                delta = new long[3];
+                batch.put(key, delta);
+                keys.add(key);
+            }
+            delta[0] += sale.getQuantity();
+            delta[1] += toCents(sale);
+            delta[2]++;
+            addToBuckets(day, sale.getDrugCode(), sale.getQuantity(), toCents(sale), 1);
+        }
+        lastSaleId = sales.get(sales.size() - 1).getTransactionId();
+        saleCount += sales.size();
+
+        List<String> lines = new ArrayList<>();
+        for (String key : keys) {
+            int split = key.indexOf('|');
+            long[] delta = batch.get(key);
+            lines.add(deltaLine(Long.parseLong(key.substring(0, split)), key.substring(split + 1), delta));
+        }
+        lines.add(watermarkLine());
+
+        if (!loaded || fileLines + lines.size() > 2 * dayBuckets + COMPACT_SLACK) {
+            return save();
+        }
+        if (!FileUtils.writeLines(FILE_NAME, lines, true)) {
+            // The file may end in a torn batch and misses this one; rewrite it in full next time
+            loaded = false;
+            return false;
+        }
+        fileLines += lines.size();
+        return true;
+    }
+
+    /**
+     * Rewrite the file with one line per bucket
+     */
+    public synchronized boolean save() {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (Object dayObj : days.keySet()) {
+            long day = (Long) dayObj;
+            MyHashMap<String, long[]> drugs = days.get(day);
+            for (Object codeObj : drugs.keySet()) {
+                lines.add(deltaLine(day, (String) codeObj, drugs.get((String) codeObj)));
+            }
+        }
+        lines.add(watermarkLine());
+
+        if (!FileUtils.writeLines(FILE_NAME, lines)) {
+            return false;
+        }
+        loaded = true;
+        fileLines = lines.size() - 1;
+        return true;
+    }
+
+    private void addToBuckets(long day, String drugCode, long quantity, long cents, long sales) {
+        if (addTo(days, day, drugCode, quantity, cents, sales)) {
+            dayBuckets++;
+        }
+        LocalDate date = LocalDate.ofEpochDay(day);
+        addTo(months, monthKey(date.getYear(), date.getMonthValue()), drugCode, quantity, cents, sales);
+    }
+
+    /**
+     * @return true if a new bucket was created
+     */
+    private static <K> boolean addTo(MyHashMap<K, MyHashMap<String, long[]>> buckets, K key, String drugCode,
+            long quantity, long cents, long sales) {
+        MyHashMap<String, long[]> drugs = buckets.get(key);
+        if (drugs == null) {
+            drugs = new MyHashMap<>();
+            buckets.put(key, drugs);
+        }
+        long[] totals = drugs.get(drugCode);
+        boolean created = totals == null;
+        if (created) {
+            totals = new long[3];
+            drugs.put(drugCode, totals);
+        }
+        totals[0] += quantity;
+        totals[1] += cents;
+        totals[2] += sales;
+        return created;
+    }
+
+    /**
+     * Get the totals of one day
+     */
+    public synchronized SalesSummary getDay(LocalDate day) {
+        SalesSummary summary = new SalesSummary(day.toString());
+        addBucket(summary, days.get(day.toEpochDay()));
+        return summary;
+    }
+
+    /**
+     * Get the totals of one calendar month
+     */
+    public synchronized SalesSummary getMonth(YearMonth month) {
+        SalesSummary summary = new SalesSummary(month.toString());
+        addBucket(summary, months.get(monthKey(month.getYear(), month.getMonthValue())));
+        return summary;
+    }
+
+    /**
+     * Get the totals of one calendar year, rolled up from its month buckets
+     */
+    public synchronized SalesSummary getYear(int year) {
+        SalesSummary summary = new SalesSummary(String.valueOf(year));
+        for (int month = 1; month <= 12; month++) {
+            addBucket(summary, months.get(monthKey(year, month)));
+        }
+        return summary;
+    }
+
+    /**
+     * Get the totals from fromDay to toDay (inclusive): whole months are read from
+     * the month buckets and only the partial months at either end from day buckets
+     */
+    public synchronized SalesSummary getRange(LocalDate fromDay, LocalDate toDay) {
+        SalesSummary summary = new SalesSummary(fromDay + " to " + toDay);
+        LocalDate day = fromDay;
+        while (!day.isAfter(toDay)) {
+            LocalDate monthEnd = day.withDayOfMonth(day.lengthOfMonth());
+            if (day.getDayOfMonth() == 1 && !monthEnd.isAfter(toDay)) {
+                addBucket(summary, months.get(monthKey(day.getYear(), day.getMonthValue())));
+                day = monthEnd.plusDays(1);
+            } else {
+                addBucket(summary, days.get(day.toEpochDay()));
+                day = day.plusDays(1);
+            }
+        }
+        return summary;
+    }
+
+    private static void addBucket(SalesSummary summary, MyHashMap<String, long[]> drugs) {
+        if (drugs == null) {
+            return;
+        }
+        for (Object codeObj : drugs.keySet()) {
+            long[] totals = drugs.get((String) codeObj);
+            summary.add((String) codeObj, totals[0], totals[1], totals[2]);
+        }
+    }
+
+    /**
+     * Get the number of sales folded into the aggregates
+     */
+    public synchronized int getSaleCount() {
+        return saleCount;
+    }
+
+    /**
+     * Get the number of (day, drug) buckets
+     */
+    public synchronized int getBucketCount() {
+        return dayBuckets;
+    }
+
+    private String watermarkLine() {
+        return "W|" + (lastSaleId != null ? lastSaleId : "") + "|" + saleCount;
+    }
+
+    private static String deltaLine(long day, String drugCode, long[] totals) {
+        return "D|" + LocalDate.ofEpochDay(day) + "|" + drugCode + "|" + totals[0] + "|" + totals[1] + "|"
+                + totals[2];
+    }
+
+    private static int monthKey(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    private static long toCents(Transaction sale) {
+        return Math.round(sale.getTotalCost() * 100);
+    }
+}
@@ -1,4 +1,532 @@
 package storage;
 
+import models.Transaction;
+import utils.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only, segmented storage for the sales log.
+ * Sales are appended to the newest segment in data/saleslog/, which is sealed
+ * and replaced once a sale falls on a new day or the segment reaches its size
+ * limit. Every segment keeps a sparse index from sale time to byte offset
+ * (persisted as a .idx file once sealed), so a time range query only opens the
+ * overlapping segments and seeks close to the first matching line. The legacy
+ * data/saleslog.txt is read as segment 0. Lines use the transactions.txt layout
+ * (saleId|drugCode|quantity|time|customerId|totalCost); the log is the only
+ * durable record of checkouts, and other sales views are rebuilt from it.
+ */
 public class SalesLogStore {
+    private static final String LEGACY_FILE = "saleslog.txt";
+    private static final String SEGMENT_DIR = "saleslog";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final long MAX_SEGMENT_BYTES = 4L * 1024 * 1024;
+    private static final int INDEX_INTERVAL = 128; // Records between sparse index entries
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private File segmentDir;
+    private List<Segment> segments; // Oldest first
+    private Segment active; // Segment receiving appends, null until the first append
+
+    /**
+     * One log file with its sparse time index and summary
+     */
+    private static class Segment {
+        final File file;
+        final File indexFile;
+        final int number;
+        LocalDate day; // Day of the first record
+        long length;
+        int records;
+        long minMinute = Long.MAX_VALUE;
+        long maxMinute = Long.MIN_VALUE;
+        boolean ordered = true; // False if a record is older than its predecessor
+        long lastMinute = Long.MIN_VALUE;
+        String lastSaleId;
+        long[] indexMinutes = new long[8];
+        long[] indexOffsets = new long[8];
+        int indexSize;
+
+        Segment(File file, File indexFile, int number) {
+            this.file = file;
+            this.indexFile = indexFile;
+            this.number = number;
+        }
+
+        /**
+         * Account for a record written at the given offset
+         */
+        void record(long minute, long offset, String saleId) {
+            if (records % INDEX_INTERVAL == 0) {
+                addIndexEntry(minute, offset);
+            }
+            if (minute < lastMinute) {
+                ordered = false;
+            }
+            if (records == 0) {
+                day = minuteToDateTime(minute).toLocalDate();
+            }
+            lastMinute = minute;
+            minMinute = Math.min(minMinute, minute);
+            maxMinute = Math.max(maxMinute, minute);
+            lastSaleId = saleId;
+            records++;
+        }
+
+        void addIndexEntry(long minute, long offset) {
+            if (indexSize == indexMinutes.length) {
+                long[] newMinutes = new long[indexSize * 2];
+                long[] newOffsets = new long[indexSize * 2];
+                System.arraycopy(indexMinutes, 0, newMinutes, 0, indexSize);
+                System.arraycopy(indexOffsets, 0, newOffsets, 0, indexSize);
+                indexMinutes = newMinutes;
+                indexOffsets = newOffsets;
+            }
+            indexMinutes[indexSize] = minute;
+            indexOffsets[indexSize] = offset;
+            indexSize++;
+        }
+
+        /**
+         * Offset to start reading from for records at or after the given minute
+         */
+        long seekOffset(long fromMinute) {
+            if (!ordered) {
+                return 0;
+            }
+            // Last index entry strictly before fromMinute; equal minutes may start earlier
+            int low = 0, high = indexSize - 1, found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (indexMinutes[mid] < fromMinute) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found >= 0 ? indexOffsets[found] : 0;
+        }
+
+        boolean overlaps(long fromMinute, long toMinute) {
+            return records > 0 && maxMinute >= fromMinute && minMinute < toMinute;
+        }
+    }
+
+    /**
+     * A record buffered for the active segment, accounted for once its bytes are written
+     */
+    private static class PendingRecord {
+        final long minute;
+        final long offset;
+        final String saleId;
+
+        PendingRecord(long minute, long offset, String saleId) {
+            this.minute = minute;
+            this.offset = offset;
+            this.saleId = saleId;
+        }
+    }
+
+    /**
+     * Callback for each line read from a segment; return false to stop
+     */
+    private interface LineVisitor {
+        boolean visit(String line, long offset);
+    }
+
+    public SalesLogStore() {
+        this.segmentDir = FileUtils.getDataFile(SEGMENT_DIR);
+        this.segments = new ArrayList<>();
+        loadSegments();
+    }
+
+    /**
+     * Discover existing segments and load or rebuild their indexes
+     */
+    private void loadSegments() {
+        if (!segmentDir.exists()) {
+            segmentDir.mkdirs();
+        }
+
+        File legacy = FileUtils.getDataFile(LEGACY_FILE);
+        if (legacy.isFile()) {
+            segments.add(new Segment(legacy, new File(segmentDir, segmentName(0) + INDEX_SUFFIX), 0));
+        }
+
+        List<Integer> numbers = new ArrayList<>();
+        File[] files = segmentDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        numbers.add(Integer.parseInt(
+                                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a segment file, ignore
+                    }
+                }
+            }
+        }
+        numbers.sort(null);
+        for (int number : numbers) {
+            if (number > 0) {
+                segments.add(newSegment(number));
+            }
+        }
+
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            boolean newest = i == segments.size() - 1 && segment.number > 0;
+            if (newest) {
+                // Still open for appends, so its index lives only in memory
+                rebuildIndex(segment);
+                active = segment;
+            } else if (!loadIndex(segment)) {
+                rebuildIndex(segment);
+                saveIndex(segment);
+            }
+        }
+    }
+
+    private Segment newSegment(int number) {
+        String name = segmentName(number);
+        return new Segment(new File(segmentDir, name + SEGMENT_SUFFIX), new File(segmentDir, name + INDEX_SUFFIX),
+                number);
+    }
+
+    private static String segmentName(int number) {
+        return String.format("%s%05d", SEGMENT_PREFIX, number);
+    }
+
+    /**
+     * Append sales in one write per segment, rolling to a new segment on a new day or at the size limit
+     */
+    public synchronized boolean append(List<Transaction> sales) {
+        ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        List<PendingRecord> records = new ArrayList<>();
+        for (Transaction sale : sales) {
+            long minute = toMinute(sale.getTimestamp());
+            if (active == null || active.number == 0 || needsRoll(active, minute, records, pending.size())) {
+                if (!flush(pending, records)) {
+                    return false;
+                }
+                roll();
+            }
+
+            byte[] line = (toLine(sale) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+            records.add(new PendingRecord(minute, active.length + pending.size(), sale.getTransactionId()));
+            pending.write(line, 0, line.length);
+        }
+        return flush(pending, records);
+    }
+
+    private boolean needsRoll(Segment segment, long minute, List<PendingRecord> records, int pendingBytes) {
+        LocalDate day;
+        if (segment.records > 0) {
+            day = segment.day;
+        } else if (!records.isEmpty()) {
+            day = minuteToDateTime(records.get(0).minute).toLocalDate();
+        } else {
+            return false;
+        }
+        return !minuteToDateTime(minute).toLocalDate().equals(day)
+                || segment.length + pendingBytes >= MAX_SEGMENT_BYTES;
+    }
+
+    /**
+     * Write buffered lines to the active segment, then account for their records.
+     * Nothing is recorded if the write fails, so the index never points past the file.
+     */
+    private boolean flush(ByteArrayOutputStream pending, List<PendingRecord> records) {
+        if (pending.size() == 0) {
+            return true;
+        }
+        try (FileOutputStream out = new FileOutputStream(active.file, true)) {
+            pending.writeTo(out);
+            active.length += pending.size();
+            pending.reset();
+            for (PendingRecord record : records) {
+                active.record(record.minute, record.offset, record.saleId);
+            }
+            records.clear();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing sales log segment " + active.file.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Seal the active segment (persisting its index) and open the next one
+     */
+    private void roll() {
+        int number = 1;
+        if (!segments.isEmpty()) {
+            number = segments.get(segments.size() - 1).number + 1;
+        }
+        if (active != null && active.number > 0) {
+            saveIndex(active);
+        }
+
+        active = newSegment(number);
+        segments.add(active);
+    }
+
+    /**
+     * Get sales with from <= timestamp < to, oldest first
+     */
+    public synchronized List<Transaction> getSalesBetween(LocalDateTime from, LocalDateTime to) {
+        long fromMinute = toMinute(from);
+        long toMinute = toMinute(to);
+        List<Transaction> sales = new ArrayList<>();
+
+        for (Segment segment : segments) {
+            if (!segment.overlaps(fromMinute, toMinute)) {
+                continue;
+            }
+            scan(segment.file, segment.seekOffset(fromMinute), (line, offset) -> {
+                Transaction sale = parseLine(line);
+                if (sale == null) {
+                    return true;
+                }
+                long minute = toMinute(sale.getTimestamp());
+                if (minute >= toMinute && segment.ordered) {
+                    return false; // Everything after this is later still
+                }
+                if (minute >= fromMinute && minute < toMinute) {
+                    sales.add(sale);
+                }
+                return true;
+            });
+        }
+        return sales;
+    }
+
+    /**
+     * Visit every logged sale, segment by segment, without collecting them
+     */
+    public synchronized void forEachSale(Consumer<Transaction> action) {
+        for (Segment segment : segments) {
+            scan(segment.file, 0, (line, offset) -> {
+                Transaction sale = parseLine(line);
+                if (sale != null) {
+                    action.accept(sale);
+                }
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Get all sales made on the given day
+     */
+    public List<Transaction> getSalesOn(LocalDate day) {
+        return getSalesBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Id of the most recently appended sale, or null if the log is empty
+     */
+    public synchronized String getLastSaleId() {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (segments.get(i).lastSaleId != null) {
+                return segments.get(i).lastSaleId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the segment files, oldest first, including the legacy file
+     */
+    public synchronized List<File> getSegmentFiles() {
+        List<File> files = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.file.isFile()) {
+                files.add(segment.file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Get the number of log segments, including the legacy file
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Get the total number of logged sales
+     */
+    public synchronized int getSaleCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.records;
+        }
+        return count;
+    }
+
+    /**
+     * Scan a whole segment to recompute its summary and sparse index
+     */
+    private void rebuildIndex(Segment segment) {
+        segment.length = segment.file.length();
+        scan(segment.file, 0, (line, offset) -> {
+            Transaction sale = parseLine(line);
+            if (sale != null) {
+                segment.record(toMinute(sale.getTimestamp()), offset, sale.getTransactionId());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Load a persisted index; false if missing or written for a different file length
+     */
+    private boolean loadIndex(Segment segment) {
+        if (!segment.indexFile.isFile()) {
+            return false;
+        }
+
+        List<String> lines = FileUtils.readLines(SEGMENT_DIR + File.separator + segment.indexFile.getName());
+        try {
+            String[] header = lines.get(1).split("\\|");
+            if (Long.parseLong(header[0]) != segment.file.length()) {
+                return false;
+            }
+            segment.length = Long.parseLong(header[0]);
+            segment.records = Integer.parseInt(header[1]);
+            segment.minMinute = Long.parseLong(header[2]);
+            segment.maxMinute = Long.parseLong(header[3]);
+            segment.ordered = Boolean.parseBoolean(header[4]);
+            segment.day = header[5].isEmpty() ? null : LocalDate.parse(header[5]);
+            segment.lastSaleId = header.length > 6 && !header[6].isEmpty() ? header[6] : null;
+            segment.lastMinute = segment.maxMinute;
+
+            for (int i = 2; i < lines.size(); i++) {
+                String[] entry = lines.get(i).split("\\|");
+                segment.addIndexEntry(Long.parseLong(entry[0]), Long.parseLong(entry[1]));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Ignoring damaged sales log index " + segment.indexFile.getName());
+            segment.records = 0;
+            segment.indexSize = 0;
+            segment.minMinute = Long.MAX_VALUE;
+            segment.maxMinute = Long.MIN_VALUE;
+            segment.lastMinute = Long.MIN_VALUE;
+            segment.ordered = true;
+            return false;
+        }
+    }
+
+    private void saveIndex(Segment segment) {
+        List<String> lines = new ArrayList<>();
+        lines.add("# length|records|minMinute|maxMinute|ordered|day|lastSaleId, then minute|offset entries");
+        lines.add(segment.length + "|" + segment.records + "|" + segment.minMinute + "|" + segment.maxMinute + "|"
+                + segment.ordered + "|" + (segment.day != null ? segment.day : "") + "|"
+                + (segment.lastSaleId != null ? segment.lastSaleId : ""));
+        for (int i = 0; i < segment.indexSize; i++) {
+            lines.add(segment.indexMinutes[i] + "|" + segment.indexOffsets[i]);
+        }
+        FileUtils.writeLines(SEGMENT_DIR + File.separator + segment.indexFile.getName(), lines);
+    }
+
+    /**
+     * Read lines from a byte offset, reporting each line's starting offset
+     */
+    private static void scan(File file, long startOffset, LineVisitor visitor) {
+        if (!file.isFile()) {
+            return;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(startOffset);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(raf.getChannel()), 64 * 1024);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            long offset = startOffset;
+            long lineStart = startOffset;
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b == '\n') {
+                    if (!visitor.visit(decode(line), lineStart)) {
+                        return;
+                    }
+                    line.reset();
+                    lineStart = offset;
+                } else {
+                    line.write(b);
+                }
+            }
+            if (line.size() > 0) {
+                visitor.visit(decode(line), lineStart);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading sales log segment " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static String decode(ByteArrayOutputStream line) {
+        String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    /**
+     * Parse saleId|drugCode|quantity|yyyy-MM-dd HH:mm|customerId|totalCost (the transactions.txt
+     * layout), or the older saleId|drugCode|quantity|yyyy-MM-dd HH:mm|totalCost without a customer.
+     * Returns null for headers and bad lines.
+     */
+    private static Transaction parseLine(String line) {
+        if (line.startsWith("#") || line.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String[] fields = line.split("\\|", -1);
+            int quantity = Integer.parseInt(fields[2].trim());
+            LocalDateTime timestamp = LocalDateTime.parse(fields[3].trim(), TIME_FORMAT);
+            String customerId = fields.length > 5 && !fields[4].trim().isEmpty() ? fields[4].trim() : null;
+            double total = Double.parseDouble(fields[fields.length > 5 ? 5 : 4].trim());
+            return new Transaction(fields[0].trim(), fields[1].trim(), customerId, quantity,
+                    quantity > 0 ? total / quantity : 0, timestamp, "SALE");
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing sales log line: " + line);
+            return null;
+        }
+    }
+
+    private static String toLine(Transaction sale) {
+        String customerId = sale.getCustomerId() != null ? sale.getCustomerId() : "";
+        return sale.getTransactionId() + "|" + sale.getDrugCode() + "|" + sale.getQuantity() + "|"
+                + sale.getTimestamp().format(TIME_FORMAT) + "|" + customerId + "|"
+                + Math.round(sale.getTotalCost() * 100) / 100.0;
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime minuteToDateTime(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
 }
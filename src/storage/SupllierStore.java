@@ -1,4 +1,303 @@
 package storage;
 
+import models.Supplier;
+import structures.MyBiMultiMap;
+import structures.MyHashMap;
+import structures.MyTree;
+import utils.FileUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Storage class for supplier data.
+ * Registered suppliers are kept in a balanced tree ordered by
+ * (deliveryTurnaroundDays, supplierId), and each drug has its own such tree of
+ * registered suppliers, so the fastest supplier for a drug is an O(log n) minimum
+ * lookup. The supplier-drug relation is not copied here: the store reads the
+ * two-way index owned by DrugStore (supplier name to drug codes and back), and
+ * the owning service refreshes a drug's tree whenever the drug changes.
+ */
 public class SupllierStore {
+    private static final String SUPPLIERS_FILE = "suppliers.txt";
+
+    /**
+     * Fastest turnaround first, ties broken by supplier ID
+     */
+    public static final Comparator<Supplier> BY_TURNAROUND = Comparator
+            .comparingInt(Supplier::getDeliveryTurnaroundDays)
+            .thenComparing(Supplier::getSupplierId);
+
+    private MyHashMap<String, Supplier> suppliersById; // Key: supplierId
+    private MyHashMap<String, Supplier> suppliersByName; // Key: supplier name as used in drugs.txt
+    private MyTree<Supplier> suppliersByTurnaround;
+    private MyHashMap<String, MyTree<Supplier>> suppliersByDrug; // Key: drugCode, registered suppliers only
+    private MyBiMultiMap<String, String> supplierDrugs; // Left: supplier name, Right: drug code; DrugStore's
+
+    public SupllierStore(MyBiMultiMap<String, String> supplierDrugs) {
+        this.suppliersById = new MyHashMap<>();
+        this.suppliersByName = new MyHashMap<>();
+        this.suppliersByTurnaround = new MyTree<>(BY_TURNAROUND);
+        this.suppliersByDrug = new MyHashMap<>();
+        this.supplierDrugs = supplierDrugs;
+        loadSuppliers();
+    }
+
+    /**
+     * Load suppliers from file
+     */
+    private void loadSuppliers() {
+        List<String> lines = FileUtils.readLines(SUPPLIERS_FILE);
+
+        for (String line : lines) {
+            if (line.startsWith("#") || line.trim().isEmpty()) {
+                continue; // Skip comments and empty lines
+            }
+
+            Supplier supplier = parseSupplierFromLine(line);
+            if (supplier != null && !suppliersById.containsKey(supplier.getSupplierId())) {
+                register(supplier);
+            }
+        }
+    }
+
+    /**
+     * Parse a supplier from a line: supplierId|name|location|deliveryDays[|contact]
+     */
+    private Supplier parseSupplierFromLine(String line) {
+        try {
+            String[] fields = line.split("\\|", -1);
+            if (fields.length < 4) {
+                return null;
+            }
+
+            String contact = fields.length > 4 ? fields[4].trim() : "";
+            return new Supplier(fields[0].trim(), fields[1].trim(), contact, fields[2].trim(),
+                    Integer.parseInt(fields[3].trim()));
+        } catch (Exception e) {
+            System.err.println("Error parsing supplier line: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convert supplier to a pipe-delimited line
+     */
+    private String supplierToLine(Supplier supplier) {
+        String line = supplier.getSupplierId() + "|" + supplier.getName() + "|" + supplier.getLocation() + "|"
+                + supplier.getDeliveryTurnaroundDays();
+        String contact = supplier.getContact();
+        return contact != null && !contact.isEmpty() ? line + "|" + contact : line;
+    }
+
+    /**
+     * Save all suppliers to file, fastest turnaround first
+     */
+    public boolean saveSuppliers() {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Format: supplierId|name|location|deliveryTime (in days)|contact (optional)");
+        suppliersByTurnaround.forEachInOrder(supplier -> lines.add(supplierToLine(supplier)));
+        return FileUtils.writeLines(SUPPLIERS_FILE, lines);
+    }
+
+    /**
+     * Add a supplier to the maps and trees, including the trees of the drugs it already supplies
+     */
+    private void register(Supplier supplier) {
+        suppliersById.put(supplier.getSupplierId(), supplier);
+        suppliersByName.put(supplier.getName(), supplier);
+        suppliersByTurnaround.insert(supplier);
+        for (Object drugCode : supplierDrugs.getRights(supplier.getName())) {
+            drugTree((String) drugCode).insert(supplier);
+        }
+    }
+
+    /**
+     * Remove a supplier from the maps and trees (it must still hold the values it was registered with)
+     */
+    private void unregister(Supplier supplier) {
+        suppliersById.remove(supplier.getSupplierId());
+        suppliersByName.remove(supplier.getName());
+        suppliersByTurnaround.remove(supplier);
+        for (Object drugCode : supplierDrugs.getRights(supplier.getName())) {
+            MyTree<Supplier> tree = suppliersByDrug.get((String) drugCode);
+            if (tree != null) {
+                tree.remove(supplier);
+                if (tree.isEmpty()) {
+                    suppliersByDrug.remove((String) drugCode);
+                }
+            }
+        }
+    }
+
+    private MyTree<Supplier> drugTree(String drugCode) {
+        MyTree<Supplier> tree = suppliersByDrug.get(drugCode);
+        if (tree == null) {
+            tree = new MyTree<>(BY_TURNAROUND);
+            suppliersByDrug.put(drugCode, tree);
+        }
+        return tree;
+    }
+
+    /**
+     * Add a new supplier (IDs and names must both be unique)
+     */
+    public boolean addSupplier(Supplier supplier) {
+        if (supplier == null || suppliersById.containsKey(supplier.getSupplierId())
+                || suppliersByName.containsKey(supplier.getName())) {
+            return false;
+        }
+
+        register(supplier);
+        return saveSuppliers();
+    }
+
+    /**
+     * Replace a supplier's record with an updated copy carrying the same ID and name.
+     * A new object is required because the trees are ordered by the old turnaround.
+     */
+    public boolean updateSupplier(Supplier updated) {
+        Supplier existing = updated != null ? suppliersById.get(updated.getSupplierId()) : null;
+        if (existing == null || !existing.getName().equals(updated.getName())) {
+            return false;
+        }
+
+        unregister(existing);
+        register(updated);
+        return saveSuppliers();
+    }
+
+    /**
+     * Remove a supplier; its links in drugs.txt are left alone
+     */
+    public boolean removeSupplier(String supplierId) {
+        Supplier existing = suppliersById.get(supplierId);
+        if (existing == null) {
+            return false;
+        }
+
+        unregister(existing);
+        return saveSuppliers();
+    }
+
+    /**
+     * Get supplier by ID
+     */
+    public Supplier getSupplier(String supplierId) {
+        return suppliersById.get(supplierId);
+    }
+
+    /**
+     * Get a registered supplier by name
+     */
+    public Supplier getSupplierByName(String name) {
+        return suppliersByName.get(name);
+    }
+
+    /**
+     * Check if supplier exists
+     */
+    public boolean supplierExists(String supplierId) {
+        return suppliersById.containsKey(supplierId);
+    }
+
+    /**
+     * Get all registered suppliers, fastest turnaround first
+     */
+    public Supplier[] getSuppliersByTurnaround() {
+        List<Supplier> suppliers = new ArrayList<>(suppliersByTurnaround.size());
+        suppliersByTurnaround.forEachInOrder(suppliers::add);
+        return suppliers.toArray(new Supplier[0]);
+    }
+
+    /**
+     * Get the registered supplier with the shortest turnaround for a drug, or null (O(log n))
+     */
+    public Supplier getFastestSupplier(String drugCode) {
+        MyTree<Supplier> tree = suppliersByDrug.get(drugCode);
+        return tree != null ? tree.findMin() : null;
+    }
+
+    /**
+     * Get the registered suppliers of a drug, fastest turnaround first
+     */
+    public Supplier[] getRegisteredSuppliersOfDrug(String drugCode) {
+        MyTree<Supplier> tree = suppliersByDrug.get(drugCode);
+        List<Supplier> suppliers = new ArrayList<>();
+        if (tree != null) {
+            tree.forEachInOrder(suppliers::add);
+        }
+        return suppliers.toArray(new Supplier[0]);
+    }
+
+    /**
+     * Get supplier count
+     */
+    public int getSupplierCount() {
+        return suppliersById.size();
+    }
+
+    /**
+     * Rebuild a drug's tree of registered suppliers from the relation
+     */
+    public void refreshDrug(String drugCode) {
+        suppliersByDrug.remove(drugCode);
+        for (Object supplier : supplierDrugs.getLefts(drugCode)) {
+            Supplier registered = suppliersByName.get((String) supplier);
+            if (registered != null) {
+                drugTree(drugCode).insert(registered);
+            }
+        }
+    }
+
+    /**
+     * Drop the tree of a removed drug
+     */
+    public void removeDrug(String drugCode) {
+        suppliersByDrug.remove(drugCode);
+    }
+
+    /**
+     * Check if a supplier supplies a drug (O(1))
+     */
+    public boolean suppliesDrug(String supplier, String drugCode) {
+        return supplierDrugs.contains(supplier, drugCode);
+    }
+
+    /**
+     * Get the codes of the drugs a supplier supplies
+     */
+    public String[] getDrugCodes(String supplier) {
+        return toStrings(supplierDrugs.getRights(supplier));
+    }
+
+    /**
+     * Get the names of the suppliers of a drug
+     */
+    public String[] getSuppliersOfDrug(String drugCode) {
+        return toStrings(supplierDrugs.getLefts(drugCode));
+    }
+
+    /**
+     * Get the names of all suppliers linked to at least one drug
+     */
+    public String[] getLinkedSupplierNames() {
+        return toStrings(supplierDrugs.leftKeys());
+    }
+
+    /**
+     * Get the number of drugs a supplier supplies
+     */
+    public int getDrugCount(String supplier) {
+        return supplierDrugs.countRights(supplier);
+    }
+
+    private static String[] toStrings(Object[] values) {
+        String[] strings = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            strings[i] = (String) values[i];
+        }
+        return strings;
+    }
 }
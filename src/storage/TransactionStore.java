@@ -1,4 +1,536 @@
 package storage;
 
+import models.Transaction;
+import structures.MyHashMap;
+import utils.FileUtils;
+import utils.SortUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Storage class for transactions, held in memory column by column.
+ * Each transaction is a row across primitive arrays (epoch seconds, dictionary
+ * encoded drug and customer ids, quantities, cents), so aggregate queries
+ * scan a few tight arrays instead of millions of Transaction objects, and
+ * large scans are split into one chunk per worker thread aggregated in parallel.
+ * Rows are kept in time order with a calendar index from epoch day to the
+ * first row of that day, so date-bounded queries only touch their days' rows.
+ * The store is a view: transactions.txt holds the history from before the sales
+ * log, and every checkout since is read back from the log, which is their only
+ * durable copy.
+ */
 public class TransactionStore {
+    private static final String TRANSACTIONS_FILE = "transactions.txt";
+    private static final String HEADER = "# Format: transactionId|drugCode|quantity|dateTime (YYYY-MM-DD HH:MM)|buyerId"
+            + "|totalCost";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final long SECONDS_PER_DAY = 86400;
+    private static final int NO_CUSTOMER = -1;
+    private static final int PARALLEL_THRESHOLD = 1 << 17; // Rows below this are scanned on one thread
+
+    // Columns, one entry per row
+    private String[] transactionIds;
+    private long[] epochSeconds;
+    private int[] drugIds;
+    private int[] customerIds;
+    private int[] quantities;
+    private long[] cents;
+    private int size;
+
+    // Calendar index: bucketDays[i] (ascending epoch days) starts at row bucketStarts[i]
+    private long[] bucketDays;
+    private int[] bucketStarts;
+    private int bucketCount;
+    private boolean timeOrdered; // False after an out-of-order row until the next day query re-sorts
+
+    private final Dictionary drugCodes = new Dictionary();
+    private final Dictionary customerCodes = new Dictionary();
+
+    /**
+     * Two-way mapping between string codes and dense int ids
+     */
+    private static class Dictionary {
+        private final MyHashMap<String, Integer> ids = new MyHashMap<>();
+        private String[] values = new String[16];
+        private int count;
+
+        int encode(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                if (count == values.length) {
+                    String[] grown = new String[count * 2];
+                    System.arraycopy(values, 0, grown, 0, count);
+                    values = grown;
+                }
+                id = count;
+                values[count++] = value;
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        int lookup(String value) {
+            Integer id = ids.get(value);
+            return id != null ? id : -1;
+        }
+
+        String decode(int id) {
+            return id >= 0 && id < count ? values[id] : null;
+        }
+
+        int size() {
+            return count;
+        }
+    }
+
+    /**
+     * Revenue in cents per drug per day over a range of days
+     */
+    public static class RevenueMatrix {
+        private final LocalDate firstDay;
+        private final String[] drugCodes;
+        private final long[][] cents; // [drug][day]
+
+        RevenueMatrix(LocalDate firstDay, String[] drugCodes, long[][] cents) {
+            this.firstDay = firstDay;
+            this.drugCodes = drugCodes;
+            this.cents = cents;
+        }
+
+        public LocalDate getFirstDay() {
+            return firstDay;
+        }
+
+        public int getDayCount() {
+            return cents.length == 0 ? 0 : cents[0].length;
+        }
+
+        public int getDrugCount() {
+            return drugCodes.length;
+        }
+
+        public String getDrugCode(int drugIndex) {
+            return drugCodes[drugIndex];
+        }
+
+        public long getRevenueCents(int drugIndex, int dayIndex) {
+            return cents[drugIndex][dayIndex];
+        }
+
+        /**
+         * Revenue of one drug over the whole range
+         */
+        public long getTotalCents(int drugIndex) {
+            long total = 0;
+            for (long dayCents : cents[drugIndex]) {
+                total += dayCents;
+            }
+            return total;
+        }
+    }
+
+    public TransactionStore() {
+        this.transactionIds = new String[64];
+        this.epochSeconds = new long[64];
+        this.drugIds = new int[64];
+        this.customerIds = new int[64];
+        this.quantities = new int[64];
+        this.cents = new long[64];
+        this.size = 0;
+        this.bucketDays = new long[16];
+        this.bucketStarts = new int[16];
+        this.bucketCount = 0;
+        this.timeOrdered = true;
+        loadTransactions();
+    }
+
+    /**
+     * Load transactions from file
+     */
+    private void loadTransactions() {
+        List<String> lines = FileUtils.readLines(TRANSACTIONS_FILE);
+
+        for (String line : lines) {
+            if (line.startsWith("#") || line.trim().isEmpty()) {
+                continue; // Skip comments and empty lines
+            }
+
+            try {
+                String[] fields = line.split("\\|", -1);
+                LocalDateTime timestamp = LocalDateTime.parse(fields[3].trim(), TIME_FORMAT);
+                String customerId = fields[4].trim();
+                addRow(fields[0].trim(), fields[1].trim(), customerId.isEmpty() ? null : customerId,
+                        Integer.parseInt(fields[2].trim()), Math.round(Double.parseDouble(fields[5].trim()) * 100),
+                        timestamp.toEpochSecond(ZoneOffset.UTC));
+            } catch (RuntimeException e) {
+                System.err.println("Error parsing transaction line: " + line + " - " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Add committed sales to the columns; the sales log is their durable copy
+     */
+    public synchronized void addTransactions(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            addRow(transaction);
+        }
+    }
+
+    /**
+     * Add the sales of the sales log after the rows of transactions.txt.
+     * Checkouts used to write each sale to both files; the transactions.txt copy
+     * is kept in memory for this run and dropped from the file, so from then on
+     * the log is the only place a checkout is stored.
+     */
+    public synchronized void addLoggedSales(SalesLogStore salesLog) {
+        int fileRows = size;
+        MyHashMap<String, Integer> fileIds = new MyHashMap<>(Math.max(16, fileRows * 2));
+        for (int row = 0; row < fileRows; row++) {
+            fileIds.put(transactionIds[row], row);
+        }
+
+        boolean[] logged = new boolean[fileRows];
+        int[] duplicates = new int[1];
+        salesLog.forEachSale(sale -> {
+            Integer row = fileIds.get(sale.getTransactionId());
+            if (row != null) {
+                logged[row] = true;
+                duplicates[0]++;
+            } else {
+                addRow(sale);
+            }
+        });
+
+        if (duplicates[0] > 0) {
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+            for (int row = 0; row < fileRows; row++) {
+                if (!logged[row]) {
+                    lines.add(rowToLine(row));
+                }
+            }
+            if (!FileUtils.writeLines(TRANSACTIONS_FILE, lines)) {
+                System.err.println("Warning: could not drop logged sales from " + TRANSACTIONS_FILE);
+            }
+        }
+    }
+
+    private void addRow(Transaction transaction) {
+        addRow(transaction.getTransactionId(), transaction.getDrugCode(), transaction.getCustomerId(),
+                transaction.getQuantity(), Math.round(transaction.getTotalCost() * 100),
+                transaction.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private void addRow(String transactionId, String drugCode, String customerId, int quantity, long totalCents,
+            long epochSecond) {
+        if (size == epochSeconds.length) {
+            resize();
+        }
+
+        // Extend the calendar index while rows keep arriving in time order
+        if (timeOrdered) {
+            if (size > 0 && epochSecond < epochSeconds[size - 1]) {
+                timeOrdered = false;
+            } else {
+                long day = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+                if (bucketCount == 0 || bucketDays[bucketCount - 1] != day) {
+                    addBucket(day, size);
+                }
+            }
+        }
+
+        transactionIds[size] = transactionId;
+        epochSeconds[size] = epochSecond;
+        drugIds[size] = drugCodes.encode(drugCode);
+        customerIds[size] = customerId == null ? NO_CUSTOMER : customerCodes.encode(customerId);
+        quantities[size] = quantity;
+        cents[size] = totalCents;
+        size++;
+    }
+
+    private void resize() {
+        int newCapacity = epochSeconds.length * 2;
+        String[] newIds = new String[newCapacity];
+        long[] newSeconds = new long[newCapacity];
+        int[] newDrugs = new int[newCapacity];
+        int[] newCustomers = new int[newCapacity];
+        int[] newQuantities = new int[newCapacity];
+        long[] newCents = new long[newCapacity];
+        System.arraycopy(transactionIds, 0, newIds, 0, size);
+        System.arraycopy(epochSeconds, 0, newSeconds, 0, size);
+        System.arraycopy(drugIds, 0, newDrugs, 0, size);
+        System.arraycopy(customerIds, 0, newCustomers, 0, size);
+        System.arraycopy(quantities, 0, newQuantities, 0, size);
+        System.arraycopy(cents, 0, newCents, 0, size);
+        transactionIds = newIds;
+        epochSeconds = newSeconds;
+        drugIds = newDrugs;
+        customerIds = newCustomers;
+        quantities = newQuantities;
+        cents = newCents;
+    }
+
+    private void addBucket(long day, int startRow) {
+        if (bucketCount == bucketDays.length) {
+            long[] newDays = new long[bucketCount * 2];
+            int[] newStarts = new int[bucketCount * 2];
+            System.arraycopy(bucketDays, 0, newDays, 0, bucketCount);
+            System.arraycopy(bucketStarts, 0, newStarts, 0, bucketCount);
+            bucketDays = newDays;
+            bucketStarts = newStarts;
+        }
+        bucketDays[bucketCount] = day;
+        bucketStarts[bucketCount] = startRow;
+        bucketCount++;
+    }
+
+    /**
+     * Re-sort the rows by time (stable radix sort) and rebuild the calendar
+     * index if an out-of-order row was added. The columns are replaced rather
+     * than permuted in place, so scans running on the old arrays stay valid.
+     */
+    private void ensureTimeOrdered() {
+        if (timeOrdered) {
+            return;
+        }
+
+        int[] perm = SortUtils.radixSortPermutation(Arrays.copyOf(epochSeconds, size));
+        int capacity = epochSeconds.length;
+        String[] newIds = new String[capacity];
+        long[] newSeconds = new long[capacity];
+        int[] newDrugs = new int[capacity];
+        int[] newCustomers = new int[capacity];
+        int[] newQuantities = new int[capacity];
+        long[] newCents = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int row = perm[i];
+            newIds[i] = transactionIds[row];
+            newSeconds[i] = epochSeconds[row];
+            newDrugs[i] = drugIds[row];
+            newCustomers[i] = customerIds[row];
+            newQuantities[i] = quantities[row];
+            newCents[i] = cents[row];
+        }
+        transactionIds = newIds;
+        epochSeconds = newSeconds;
+        drugIds = newDrugs;
+        customerIds = newCustomers;
+        quantities = newQuantities;
+        cents = newCents;
+
+        bucketCount = 0;
+        for (int row = 0; row < size; row++) {
+            long day = Math.floorDiv(epochSeconds[row], SECONDS_PER_DAY);
+            if (bucketCount == 0 || bucketDays[bucketCount - 1] != day) {
+                addBucket(day, row);
+            }
+        }
+        timeOrdered = true;
+    }
+
+    /**
+     * First row on or after the given day (size if none)
+     */
+    private int firstRowOnOrAfter(long day) {
+        int low = 0, high = bucketCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucketDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < bucketCount ? bucketStarts[low] : size;
+    }
+
+    /**
+     * Get the transactions made on one day, oldest first
+     */
+    public synchronized List<Transaction> getTransactionsOn(LocalDate day) {
+        ensureTimeOrdered();
+        List<Transaction> transactions = new ArrayList<>();
+        int end = firstRowOnOrAfter(day.toEpochDay() + 1);
+        for (int row = firstRowOnOrAfter(day.toEpochDay()); row < end; row++) {
+            transactions.add(getTransaction(row));
+        }
+        return transactions;
+    }
+
+    /**
+     * Visit the transactions with fromDay <= date < toDay in time order, building
+     * one Transaction at a time so callers can stream over any range
+     */
+    public synchronized void forEachTransaction(LocalDate fromDay, LocalDate toDay, Consumer<Transaction> action) {
+        ensureTimeOrdered();
+        int end = firstRowOnOrAfter(toDay.toEpochDay());
+        for (int row = firstRowOnOrAfter(fromDay.toEpochDay()); row < end; row++) {
+            action.accept(getTransaction(row));
+        }
+    }
+
+    /**
+     * Get the number of transactions with fromDay <= date < toDay
+     */
+    public synchronized int getTransactionCount(LocalDate fromDay, LocalDate toDay) {
+        ensureTimeOrdered();
+        return Math.max(0, firstRowOnOrAfter(toDay.toEpochDay()) - firstRowOnOrAfter(fromDay.toEpochDay()));
+    }
+
+    /**
+     * Get the revenue in cents of transactions with fromDay <= date < toDay
+     */
+    public synchronized long getRevenueCents(LocalDate fromDay, LocalDate toDay) {
+        ensureTimeOrdered();
+        long total = 0;
+        int end = firstRowOnOrAfter(toDay.toEpochDay());
+        for (int row = firstRowOnOrAfter(fromDay.toEpochDay()); row < end; row++) {
+            total += cents[row];
+        }
+        return total;
+    }
+
+    /**
+     * Revenue in cents for a single day
+     */
+    public long getDailyRevenueCents(LocalDate day) {
+        return getRevenueCents(day, day.plusDays(1));
+    }
+
+    /**
+     * Revenue in cents for the Monday-to-Sunday week containing the given day
+     */
+    public long getWeeklyRevenueCents(LocalDate day) {
+        LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return getRevenueCents(monday, monday.plusWeeks(1));
+    }
+
+    /**
+     * Revenue in cents for a calendar month
+     */
+    public long getMonthlyRevenueCents(YearMonth month) {
+        return getRevenueCents(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    private String rowToLine(int row) {
+        String customerId = customerCodes.decode(customerIds[row]);
+        return transactionIds[row] + "|" + drugCodes.decode(drugIds[row]) + "|" + quantities[row] + "|"
+                + LocalDateTime.ofEpochSecond(epochSeconds[row], 0, ZoneOffset.UTC).format(TIME_FORMAT) + "|"
+                + (customerId != null ? customerId : "") + "|" + cents[row] / 100.0;
+    }
+
+    /**
+     * Rebuild a Transaction object for one row (rows are numbered in time order)
+     */
+    public synchronized Transaction getTransaction(int row) {
+        ensureTimeOrdered();
+        if (row < 0 || row >= size) {
+            return null;
+        }
+        int quantity = quantities[row];
+        double total = cents[row] / 100.0;
+        return new Transaction(transactionIds[row], drugCodes.decode(drugIds[row]),
+                customerCodes.decode(customerIds[row]), quantity, quantity > 0 ? total / quantity : 0,
+                LocalDateTime.ofEpochSecond(epochSeconds[row], 0, ZoneOffset.UTC), "SALE");
+    }
+
+    /**
+     * Revenue in cents per drug per day for days in [fromDay, toDay]
+     * Time Complexity: O(rows in range / threads + threads * drugs * days)
+     */
+    public RevenueMatrix getRevenuePerDrugPerDay(LocalDate fromDay, LocalDate toDay) {
+        long firstDay = fromDay.toEpochDay();
+        int days = (int) Math.max(0, toDay.toEpochDay() - firstDay + 1);
+
+        final long[] seconds;
+        final int[] drugs;
+        final long[] amounts;
+        final int startRow;
+        final int endRow;
+        final String[] codes;
+        synchronized (this) {
+            // Appends only write past endRow and re-sorting swaps in new arrays,
+            // so the captured rows can be scanned outside the lock
+            ensureTimeOrdered();
+            seconds = epochSeconds;
+            drugs = drugIds;
+            amounts = cents;
+            startRow = firstRowOnOrAfter(firstDay);
+            endRow = Math.max(startRow, firstRowOnOrAfter(firstDay + days));
+            codes = new String[drugCodes.size()];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = drugCodes.decode(i);
+            }
+        }
+
+        // One chunk, and so one partial matrix, per worker of the common pool
+        int rows = endRow - startRow;
+        boolean parallel = rows >= PARALLEL_THRESHOLD;
+        int chunks = parallel ? Math.max(1, ForkJoinPool.getCommonPoolParallelism()) : 1;
+        int chunkSize = (rows + chunks - 1) / chunks;
+
+        IntStream chunkStream = IntStream.range(0, chunks);
+        if (parallel) {
+            chunkStream = chunkStream.parallel();
+        }
+        long[] flat = chunkStream
+                .mapToObj(chunk -> {
+                    long[] partial = new long[codes.length * days];
+                    int end = Math.min(endRow, startRow + (chunk + 1) * chunkSize);
+                    for (int row = startRow + chunk * chunkSize; row < end; row++) {
+                        int day = (int) (Math.floorDiv(seconds[row], SECONDS_PER_DAY) - firstDay);
+                        partial[drugs[row] * days + day] += amounts[row];
+                    }
+                    return partial;
+                })
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                    return a;
+                })
+                .orElse(new long[codes.length * days]);
+
+        long[][] matrix = new long[codes.length][days];
+        for (int drug = 0; drug < codes.length; drug++) {
+            System.arraycopy(flat, drug * days, matrix[drug], 0, days);
+        }
+        return new RevenueMatrix(fromDay, codes, matrix);
+    }
+
+    /**
+     * Total quantity sold of one drug over all transactions
+     */
+    public synchronized int getQuantitySold(String drugCode) {
+        int drugId = drugCodes.lookup(drugCode);
+        int total = 0;
+        if (drugId >= 0) {
+            for (int row = 0; row < size; row++) {
+                if (drugIds[row] == drugId) {
+                    total += quantities[row];
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of stored transactions
+     */
+    public synchronized int size() {
+        return size;
+    }
 }
@@ -0,0 +1,280 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom BK-tree for approximate string matching under Levenshtein distance.
+ * Each child edge is labelled with its distance to the parent key, so by the
+ * triangle inequality a query within distance k of some key can only lie in
+ * the subtrees whose edge label is within k of the query-to-parent distance.
+ * Whole subtrees are skipped without computing any distances.
+ *
+ * @param <V> the type of values stored under keys
+ */
+public class MyBKTree<V> {
+    private static final int MIN_REBUILD_THRESHOLD = 64;
+
+    private BKNode<V> root;
+    private int size; // Number of stored values
+    private int nodeCount; // Number of keys, including emptied ones
+    private int emptyNodeCount; // Keys whose values were all removed
+
+    /**
+     * Node class for the BK-tree
+     */
+    private static class BKNode<V> {
+        final String key;
+        List<V> values = new ArrayList<>(1);
+        int[] edgeDistances = new int[0];
+        BKNode<V>[] children = newChildren(0);
+        int childCount;
+
+        BKNode(String key) {
+            this.key = key;
+        }
+
+        BKNode<V> child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (edgeDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, BKNode<V> node) {
+            if (childCount == children.length) {
+                int newCapacity = Math.max(2, childCount * 2);
+                int[] newDistances = new int[newCapacity];
+                BKNode<V>[] newChildren = newChildren(newCapacity);
+                System.arraycopy(edgeDistances, 0, newDistances, 0, childCount);
+                System.arraycopy(children, 0, newChildren, 0, childCount);
+                edgeDistances = newDistances;
+                children = newChildren;
+            }
+            edgeDistances[childCount] = distance;
+            children[childCount] = node;
+            childCount++;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <V> BKNode<V>[] newChildren(int capacity) {
+            return (BKNode<V>[]) new BKNode[capacity];
+        }
+    }
+
+    /**
+     * A search hit: a stored value and its distance to the query
+     */
+    public static class Match<V> {
+        private final String key;
+        private final V value;
+        private final int distance;
+
+        Match(String key, V value, int distance) {
+            this.key = key;
+            this.value = value;
+            this.distance = distance;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+
+    public MyBKTree() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Add a value under a key
+     * Time Complexity: O(depth * L^2)
+     */
+    public void add(String key, V value) {
+        if (root == null) {
+            root = new BKNode<>(key);
+            nodeCount++;
+            root.values.add(value);
+            size++;
+            return;
+        }
+
+        BKNode<V> node = root;
+        while (true) {
+            int distance = distance(key, node.key);
+            if (distance == 0) {
+                if (node.values.isEmpty()) {
+                    emptyNodeCount--;
+                }
+                node.values.add(value);
+                size++;
+                return;
+            }
+
+            BKNode<V> child = node.child(distance);
+            if (child == null) {
+                BKNode<V> created = new BKNode<>(key);
+                created.values.add(value);
+                node.addChild(distance, created);
+                nodeCount++;
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Remove a value stored under a key.
+     * The key stays in the tree as a routing node until the tree is rebuilt.
+     */
+    public boolean remove(String key, V value) {
+        BKNode<V> node = root;
+        while (node != null) {
+            int distance = distance(key, node.key);
+            if (distance == 0) {
+                if (!node.values.remove(value)) {
+                    return false;
+                }
+                size--;
+                if (node.values.isEmpty()) {
+                    emptyNodeCount++;
+                    if (emptyNodeCount > Math.max(MIN_REBUILD_THRESHOLD, nodeCount - emptyNodeCount)) {
+                        rebuild();
+                    }
+                }
+                return true;
+            }
+            node = node.child(distance);
+        }
+        return false;
+    }
+
+    /**
+     * Find all values whose key is within maxDistance of the query, closest first
+     */
+    public List<Match<V>> search(String query, int maxDistance) {
+        List<Match<V>> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+
+        MyStack<BKNode<V>> pending = new MyStack<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            BKNode<V> node = pending.pop();
+            int distance = distance(query, node.key);
+
+            if (distance <= maxDistance) {
+                for (V value : node.values) {
+                    matches.add(new Match<>(node.key, value, distance));
+                }
+            }
+
+            // Triangle inequality: only edges in [d - k, d + k] can lead to matches
+            for (int i = 0; i < node.childCount; i++) {
+                int edge = node.edgeDistances[i];
+                if (edge >= distance - maxDistance && edge <= distance + maxDistance) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+
+        matches.sort((a, b) -> a.distance != b.distance
+                ? Integer.compare(a.distance, b.distance)
+                : a.key.compareTo(b.key));
+        return matches;
+    }
+
+    /**
+     * Rebuild the tree from its live values, dropping emptied routing nodes
+     */
+    private void rebuild() {
+        List<BKNode<V>> live = new ArrayList<>();
+        MyStack<BKNode<V>> pending = new MyStack<>();
+        if (root != null) {
+            pending.push(root);
+        }
+        while (!pending.isEmpty()) {
+            BKNode<V> node = pending.pop();
+            if (!node.values.isEmpty()) {
+                live.add(node);
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                pending.push(node.children[i]);
+            }
+        }
+
+        clear();
+        for (BKNode<V> node : live) {
+            for (V value : node.values) {
+                add(node.key, value);
+            }
+        }
+    }
+
+    /**
+     * Levenshtein edit distance using two rolling rows
+     * Time Complexity: O(|a| * |b|)
+     */
+    public static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Get the number of stored values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if tree is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clear all elements from the tree
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+        nodeCount = 0;
+        emptyNodeCount = 0;
+    }
+}
@@ -0,0 +1,155 @@
+package structures;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Custom many-to-many relation indexed in both directions.
+ * Each side maps a key to the set of keys it is related to on the other side,
+ * so membership checks and lookups are O(1) from either end, and both sides
+ * are always updated together.
+ *
+ * @param <L> the type of left-hand keys
+ * @param <R> the type of right-hand keys
+ */
+public class MyBiMultiMap<L, R> {
+    private MyHashMap<L, Set<R>> byLeft;
+    private MyHashMap<R, Set<L>> byRight;
+    private int size; // Number of (left, right) pairs
+
+    public MyBiMultiMap() {
+        this.byLeft = new MyHashMap<>();
+        this.byRight = new MyHashMap<>();
+        this.size = 0;
+    }
+
+    /**
+     * Relate left to right
+     *
+     * @return true if the pair was not already present
+     */
+    public boolean put(L left, R right) {
+        if (!addTo(byLeft, left, right)) {
+            return false;
+        }
+        addTo(byRight, right, left);
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove the relation between left and right
+     *
+     * @return true if the pair was present
+     */
+    public boolean remove(L left, R right) {
+        if (!removeFrom(byLeft, left, right)) {
+            return false;
+        }
+        removeFrom(byRight, right, left);
+        size--;
+        return true;
+    }
+
+    /**
+     * Remove every pair with the given left key
+     */
+    public void removeLeft(L left) {
+        Set<R> rights = byLeft.remove(left);
+        if (rights != null) {
+            for (R right : rights) {
+                removeFrom(byRight, right, left);
+            }
+            size -= rights.size();
+        }
+    }
+
+    /**
+     * Remove every pair with the given right key
+     */
+    public void removeRight(R right) {
+        Set<L> lefts = byRight.remove(right);
+        if (lefts != null) {
+            for (L left : lefts) {
+                removeFrom(byLeft, left, right);
+            }
+            size -= lefts.size();
+        }
+    }
+
+    /**
+     * Check if left and right are related
+     */
+    public boolean contains(L left, R right) {
+        Set<R> rights = byLeft.get(left);
+        return rights != null && rights.contains(right);
+    }
+
+    /**
+     * Get the right keys related to left, in insertion order
+     */
+    public Object[] getRights(L left) {
+        Set<R> rights = byLeft.get(left);
+        return rights != null ? rights.toArray() : new Object[0];
+    }
+
+    /**
+     * Get the left keys related to right, in insertion order
+     */
+    public Object[] getLefts(R right) {
+        Set<L> lefts = byRight.get(right);
+        return lefts != null ? lefts.toArray() : new Object[0];
+    }
+
+    public int countRights(L left) {
+        Set<R> rights = byLeft.get(left);
+        return rights != null ? rights.size() : 0;
+    }
+
+    public int countLefts(R right) {
+        Set<L> lefts = byRight.get(right);
+        return lefts != null ? lefts.size() : 0;
+    }
+
+    /**
+     * Get all left keys that have at least one relation
+     */
+    public Object[] leftKeys() {
+        return byLeft.keySet();
+    }
+
+    /**
+     * Get all right keys that have at least one relation
+     */
+    public Object[] rightKeys() {
+        return byRight.keySet();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static <K, V> boolean addTo(MyHashMap<K, Set<V>> index, K key, V value) {
+        Set<V> values = index.get(key);
+        if (values == null) {
+            values = new LinkedHashSet<>();
+            index.put(key, values);
+        }
+        return values.add(value);
+    }
+
+    private static <K, V> boolean removeFrom(MyHashMap<K, Set<V>> index, K key, V value) {
+        Set<V> values = index.get(key);
+        if (values == null || !values.remove(value)) {
+            return false;
+        }
+        if (values.isEmpty()) {
+            index.remove(key);
+        }
+        return true;
+    }
+}
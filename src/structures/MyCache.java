@@ -0,0 +1,304 @@
+package structures;
+
+import java.util.function.Predicate;
+
+/**
+ * Custom bounded cache with LRU or TinyLFU-admission eviction.
+ * Entries live in a hash map plus a doubly linked recency list. With
+ * TINY_LFU, a count-min sketch of recent access frequencies decides whether
+ * a new entry is worth more than the LRU victim; one-off keys are rejected
+ * instead of flushing frequently used entries.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class MyCache<K, V> {
+
+    /**
+     * How entries are chosen for eviction when the cache is full
+     */
+    public enum EvictionPolicy {
+        LRU, TINY_LFU
+    }
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15; // 4-bit counters, as in TinyLFU
+    private static final long HALVE_MASK = 0x7777777777777777L; // Clears the bit shifted in from the next counter
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private MyHashMap<K, Entry<K, V>> entries;
+    private Entry<K, V> head; // Most recently used
+    private Entry<K, V> tail; // Least recently used
+
+    // Frequency sketch (TINY_LFU only)
+    private long[] sketch; // SKETCH_DEPTH rows of 4-bit counters, 16 per long
+    private int sketchWidth; // Counters per row
+    private int sketchMask;
+    private int sampleCount;
+    private int sampleSize;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long invalidations;
+
+    /**
+     * Node class for the recency list
+     */
+    private static class Entry<K, V> {
+        final K key;
+        V value;
+        Entry<K, V> prev;
+        Entry<K, V> next;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    public MyCache(int capacity, EvictionPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.policy = policy;
+        this.entries = new MyHashMap<>(capacity * 2);
+
+        if (policy == EvictionPolicy.TINY_LFU) {
+            int width = Integer.highestOneBit(Math.max(16, capacity * 4) - 1) << 1;
+            this.sketch = new long[SKETCH_DEPTH * width / 16];
+            this.sketchWidth = width;
+            this.sketchMask = width - 1;
+            this.sampleSize = capacity * 10; // Halve all counts after this many accesses
+        }
+    }
+
+    public MyCache(int capacity) {
+        this(capacity, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Get a cached value, or null on a miss
+     * Time Complexity: O(1) average
+     */
+    public V get(K key) {
+        recordAccess(key);
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        moveToFront(entry);
+        return entry.value;
+    }
+
+    /**
+     * Cache a value. With TINY_LFU a new key may be rejected when the cache is full.
+     *
+     * @return true if the value is now cached
+     */
+    public boolean put(K key, V value) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null) {
+            entry.value = value;
+            moveToFront(entry);
+            return true;
+        }
+
+        if (entries.size() >= capacity) {
+            Entry<K, V> victim = tail;
+            if (policy == EvictionPolicy.TINY_LFU && frequency(key) <= frequency(victim.key)) {
+                rejections++;
+                return false;
+            }
+            unlink(victim);
+            entries.remove(victim.key);
+            evictions++;
+        }
+
+        entry = new Entry<>(key, value);
+        entries.put(key, entry);
+        linkFirst(entry);
+        return true;
+    }
+
+    /**
+     * Remove a single entry
+     */
+    public boolean invalidate(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        invalidations++;
+        return true;
+    }
+
+    /**
+     * Remove every entry whose key matches the predicate
+     * Time Complexity: O(capacity)
+     */
+    public int invalidateIf(Predicate<K> predicate) {
+        int removed = 0;
+        Entry<K, V> current = head;
+        while (current != null) {
+            Entry<K, V> next = current.next;
+            if (predicate.test(current.key)) {
+                unlink(current);
+                entries.remove(current.key);
+                removed++;
+            }
+            current = next;
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    /**
+     * Clear all cached entries (statistics are kept)
+     */
+    public void clear() {
+        entries.clear();
+        head = null;
+        tail = null;
+    }
+
+    /**
+     * Count-min increment of the key's frequency, with periodic aging
+     */
+    private void recordAccess(K key) {
+        if (sketch == null) {
+            return;
+        }
+
+        int hash = spread(key);
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int counter = row * sketchWidth + indexFor(hash, row);
+            int shift = (counter & 15) << 2;
+            if (((sketch[counter >>> 4] >>> shift) & MAX_FREQUENCY) < MAX_FREQUENCY) {
+                sketch[counter >>> 4] += 1L << shift;
+            }
+        }
+
+        if (++sampleCount >= sampleSize) {
+            // Halve all 16 counters of a word at once
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] = (sketch[i] >>> 1) & HALVE_MASK;
+            }
+            sampleCount /= 2;
+        }
+    }
+
+    /**
+     * Estimated recent access count of a key (minimum over the sketch rows)
+     */
+    private int frequency(K key) {
+        int hash = spread(key);
+        int estimate = MAX_FREQUENCY;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int counter = row * sketchWidth + indexFor(hash, row);
+            estimate = Math.min(estimate, (int) ((sketch[counter >>> 4] >>> ((counter & 15) << 2)) & MAX_FREQUENCY));
+        }
+        return estimate;
+    }
+
+    private int spread(K key) {
+        int h = key == null ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x45d9f3b;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexFor(int hash, int row) {
+        int h = hash * (0x9E3779B9 + 2 * row + 1); // Different odd multiplier per row
+        return (h ^ (h >>> 15)) & sketchMask;
+    }
+
+    private void moveToFront(Entry<K, V> entry) {
+        if (entry != head) {
+            unlink(entry);
+            linkFirst(entry);
+        }
+    }
+
+    private void linkFirst(Entry<K, V> entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        head = entry;
+        if (tail == null) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(Entry<K, V> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    // Statistics
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    /**
+     * Get the number of cached entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Check if cache is empty
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache{policy=%s, size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, "
+                + "rejections=%d, invalidations=%d}", policy, size(), capacity, hits, misses, getHitRate() * 100,
+                evictions, rejections, invalidations);
+    }
+}
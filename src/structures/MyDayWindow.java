@@ -0,0 +1,137 @@
+package structures;
+
+/**
+ * Custom sliding window of daily totals over integer days (e.g. epoch days).
+ * A ring of day buckets sized to the longest tracked window holds the recent
+ * days, and a running total is kept for each tracked window length (e.g. 7 and
+ * 30 days). Adding to a day and reading a window total are O(1); advancing the
+ * window by a day subtracts the day that leaves each window and clears the
+ * bucket being reused, so a jump of any size costs at most one pass over the ring.
+ */
+public class MyDayWindow {
+    private final long[] buckets; // Ring indexed by day modulo capacity
+    private final int[] windows; // Tracked window lengths in days
+    private final long[] totals; // Running total of each tracked window
+    private long currentDay; // Newest day covered by the windows
+
+    /**
+     * @param startDay the newest day covered initially
+     * @param windows  the window lengths to keep totals for, e.g. 7, 30
+     */
+    public MyDayWindow(long startDay, int... windows) {
+        int capacity = 0;
+        for (int window : windows) {
+            if (window <= 0) {
+                throw new IllegalArgumentException("Window length must be positive: " + window);
+            }
+            capacity = Math.max(capacity, window);
+        }
+        if (capacity == 0) {
+            throw new IllegalArgumentException("At least one window length is required");
+        }
+        this.buckets = new long[capacity];
+        this.windows = windows.clone();
+        this.totals = new long[windows.length];
+        this.currentDay = startDay;
+    }
+
+    /**
+     * Add an amount to a day, advancing the window first if the day is newer
+     *
+     * @return false if the day is older than the longest window and was ignored
+     */
+    public boolean add(long day, long amount) {
+        advanceTo(day);
+        if (day <= currentDay - buckets.length) {
+            return false;
+        }
+        buckets[slot(day)] += amount;
+        for (int i = 0; i < windows.length; i++) {
+            if (day > currentDay - windows[i]) {
+                totals[i] += amount;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move the newest day forward; days that fall out of a window leave its total.
+     * Days at or before the current day are ignored.
+     */
+    public void advanceTo(long day) {
+        if (day <= currentDay) {
+            return;
+        }
+        if (day - currentDay >= buckets.length) {
+            // Every bucket is out of range
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = 0;
+            }
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = 0;
+            }
+            currentDay = day;
+            return;
+        }
+        while (currentDay < day) {
+            currentDay++;
+            for (int i = 0; i < windows.length; i++) {
+                totals[i] -= buckets[slot(currentDay - windows[i])];
+            }
+            buckets[slot(currentDay)] = 0; // Reuses the slot of the day that left the longest window
+        }
+    }
+
+    /**
+     * Get the total of the last 'window' days up to the current day.
+     * The length must be one of those given to the constructor.
+     */
+    public long getTotal(int window) {
+        for (int i = 0; i < windows.length; i++) {
+            if (windows[i] == window) {
+                return totals[i];
+            }
+        }
+        throw new IllegalArgumentException("Window length is not tracked: " + window);
+    }
+
+    /**
+     * Get the average per day over the last 'window' days
+     */
+    public double getAverage(int window) {
+        return getTotal(window) / (double) window;
+    }
+
+    /**
+     * Get the total of a single day, or 0 if it is outside the ring
+     */
+    public long getDay(long day) {
+        if (day > currentDay || day <= currentDay - buckets.length) {
+            return 0;
+        }
+        return buckets[slot(day)];
+    }
+
+    /**
+     * Get the newest day covered by the windows
+     */
+    public long getCurrentDay() {
+        return currentDay;
+    }
+
+    /**
+     * Check if every tracked window is empty
+     */
+    public boolean isEmpty() {
+        for (long total : totals) {
+            if (total != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) buckets.length);
+    }
+}
@@ -0,0 +1,191 @@
+package structures;
+
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+/**
+ * Custom static search index storing sorted keys in Eytzinger (BFS) order.
+ * The implicit tree lives in a flat array where the children of slot k are
+ * 2k and 2k + 1, so the first levels of every search share the same few cache
+ * lines and each descent step is the same index update, k = 2k + (key < target),
+ * with no early exit.
+ *
+ * Each key is also summarised by an order-preserving long prefix kept in a
+ * primitive array, so the descent compares longs and only dereferences the
+ * full key when two prefixes are equal.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class MyEytzingerIndex<K, V> {
+    private static final int PREFIX_CHARS = 4;
+
+    private long[] prefixes; // 1-based, slot 0 unused
+    private K[] keys;
+    private V[] values;
+    private int size;
+    private Comparator<K> comparator;
+    private ToLongFunction<K> prefixFunction;
+
+    /**
+     * Build the index from keys that are already sorted by the comparator.
+     * The prefix function must agree with the comparator: whenever
+     * prefix(a) &lt; prefix(b), a must sort before b.
+     * Time Complexity: O(n)
+     */
+    @SuppressWarnings("unchecked")
+    public MyEytzingerIndex(K[] sortedKeys, V[] sortedValues, Comparator<K> comparator,
+            ToLongFunction<K> prefixFunction) {
+        if (sortedKeys.length != sortedValues.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length");
+        }
+
+        this.size = sortedKeys.length;
+        this.prefixes = new long[size + 1];
+        this.keys = (K[]) new Object[size + 1];
+        this.values = (V[]) new Object[size + 1];
+        this.comparator = comparator;
+        this.prefixFunction = prefixFunction;
+        fill(sortedKeys, sortedValues, 0, 1);
+    }
+
+    /**
+     * Build the index without prefixes; every step compares full keys
+     */
+    public MyEytzingerIndex(K[] sortedKeys, V[] sortedValues, Comparator<K> comparator) {
+        this(sortedKeys, sortedValues, comparator, key -> 0L);
+    }
+
+    /**
+     * Index over strings in natural order, using the first characters as prefix
+     */
+    public static <V> MyEytzingerIndex<String, V> forStrings(String[] sortedKeys, V[] sortedValues) {
+        return new MyEytzingerIndex<>(sortedKeys, sortedValues, Comparator.naturalOrder(),
+                key -> stringPrefix(key, false));
+    }
+
+    /**
+     * Index over strings in case-insensitive order, using the first folded characters as prefix
+     */
+    public static <V> MyEytzingerIndex<String, V> forStringsIgnoreCase(String[] sortedKeys, V[] sortedValues) {
+        return new MyEytzingerIndex<>(sortedKeys, sortedValues, String.CASE_INSENSITIVE_ORDER,
+                key -> stringPrefix(key, true));
+    }
+
+    /**
+     * Pack the first four chars of a string into a signed-comparable long.
+     * Missing chars count as zero, so shorter strings sort first on ties.
+     */
+    private static long stringPrefix(String key, boolean ignoreCase) {
+        long packed = 0;
+        for (int i = 0; i < PREFIX_CHARS; i++) {
+            char c = i < key.length() ? key.charAt(i) : 0;
+            if (ignoreCase) {
+                // Same folding as String.CASE_INSENSITIVE_ORDER
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            packed = (packed << 16) | c;
+        }
+        return packed ^ Long.MIN_VALUE; // Unsigned order as signed longs
+    }
+
+    /**
+     * Place sorted elements into BFS slots with an in-order walk of the implicit tree
+     */
+    private int fill(K[] sortedKeys, V[] sortedValues, int next, int slot) {
+        if (slot <= size) {
+            next = fill(sortedKeys, sortedValues, next, 2 * slot);
+            keys[slot] = sortedKeys[next];
+            prefixes[slot] = prefixFunction.applyAsLong(sortedKeys[next]);
+            values[slot] = sortedValues[next];
+            next++;
+            next = fill(sortedKeys, sortedValues, next, 2 * slot + 1);
+        }
+        return next;
+    }
+
+    /**
+     * Find the slot of the first key not less than the given key, or 0 if none.
+     * Time Complexity: O(log n)
+     */
+    private int lowerBoundSlot(K key) {
+        long prefix = prefixFunction.applyAsLong(key);
+        int k = 1;
+        while (k <= size) {
+            long slotPrefix = prefixes[k];
+            // Go right when the slot key is smaller; full keys are compared only on prefix ties
+            boolean less = slotPrefix < prefix
+                    || (slotPrefix == prefix && comparator.compare(keys[k], key) < 0);
+            k = 2 * k + (less ? 1 : 0);
+        }
+        // Undo the trailing right turns plus the final left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    /**
+     * Get the value stored for an exact key match
+     */
+    public V get(K key) {
+        int slot = lowerBoundSlot(key);
+        if (slot != 0 && comparator.compare(keys[slot], key) == 0) {
+            return values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Check if the index contains a key
+     */
+    public boolean containsKey(K key) {
+        int slot = lowerBoundSlot(key);
+        return slot != 0 && comparator.compare(keys[slot], key) == 0;
+    }
+
+    /**
+     * Get the smallest key greater than or equal to the given key (lower bound)
+     */
+    public K ceilingKey(K key) {
+        int slot = lowerBoundSlot(key);
+        return slot != 0 ? keys[slot] : null;
+    }
+
+    /**
+     * Get the value of the smallest key greater than or equal to the given key
+     */
+    public V ceilingValue(K key) {
+        int slot = lowerBoundSlot(key);
+        return slot != 0 ? values[slot] : null;
+    }
+
+    /**
+     * Get the number of keys in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if index is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "EytzingerIndex: []";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("EytzingerIndex (bfs): [");
+        for (int i = 1; i <= size; i++) {
+            sb.append(keys[i]);
+            if (i < size) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,286 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Custom trigram inverted index for case-insensitive substring search.
+ * Every indexed text is normalized once and split into overlapping
+ * three-character grams; each gram maps to a sorted posting list of
+ * document ids. A substring query intersects the posting lists of its
+ * grams (smallest first) and verifies the surviving candidates.
+ *
+ * @param <V> the type of values returned by searches
+ */
+public class MyNGramIndex<V> {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_COMPACT_THRESHOLD = 64;
+
+    private MyHashMap<String, PostingList> postings; // Key: gram, Value: ascending doc ids
+    private MyHashMap<String, Integer> docIds; // Key: external key, Value: doc id
+    private String[] texts; // Normalized text per doc id, null once removed
+    private V[] values;
+    private String[] keys;
+    private int nextDocId;
+    private int liveCount;
+
+    /**
+     * Growable sorted int array of document ids
+     */
+    private static class PostingList {
+        int[] ids = new int[4];
+        int size;
+
+        void append(int id) {
+            // Ids are appended in increasing order, so a repeat gram is always the last entry
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(ids, 0, grown, 0, size);
+                ids = grown;
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            int index = binarySearch(id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        int binarySearch(int id) {
+            int low = 0, high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] < id) {
+                    low = mid + 1;
+                } else if (ids[mid] > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public MyNGramIndex() {
+        this.postings = new MyHashMap<>();
+        this.docIds = new MyHashMap<>();
+        this.texts = new String[16];
+        this.values = (V[]) new Object[16];
+        this.keys = new String[16];
+        this.nextDocId = 0;
+        this.liveCount = 0;
+    }
+
+    /**
+     * Index (or re-index) a value under a unique key with the given text
+     * Time Complexity: O(L) posting appends, plus posting removals when re-indexing
+     */
+    public void put(String key, String text, V value) {
+        remove(key);
+
+        if (nextDocId == texts.length) {
+            resize();
+        }
+
+        int docId = nextDocId++;
+        String normalized = normalize(text);
+        texts[docId] = normalized;
+        values[docId] = value;
+        keys[docId] = key;
+        docIds.put(key, docId);
+        liveCount++;
+
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            String gram = normalized.substring(i, i + GRAM_LENGTH);
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(gram, list);
+            }
+            list.append(docId);
+        }
+    }
+
+    /**
+     * Remove the value indexed under a key
+     */
+    public boolean remove(String key) {
+        Integer docId = docIds.remove(key);
+        if (docId == null) {
+            return false;
+        }
+
+        String normalized = texts[docId];
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            String gram = normalized.substring(i, i + GRAM_LENGTH);
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(docId);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        texts[docId] = null;
+        values[docId] = null;
+        keys[docId] = null;
+        liveCount--;
+
+        // Dead slots only cost memory; renumber once they outweigh the live documents
+        if (nextDocId - liveCount > Math.max(MIN_COMPACT_THRESHOLD, liveCount)) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Get the normalized text currently indexed under a key
+     */
+    public String getIndexedText(String key) {
+        Integer docId = docIds.get(key);
+        return docId != null ? texts[docId] : null;
+    }
+
+    /**
+     * Find all values whose text contains the query (case-insensitive)
+     * Time Complexity: O(sum of posting lengths + candidates * L)
+     */
+    public List<V> search(String query) {
+        String normalized = normalize(query);
+        List<V> results = new ArrayList<>();
+
+        // Too short to form a gram - verify every live document
+        if (normalized.length() < GRAM_LENGTH) {
+            for (int docId = 0; docId < nextDocId; docId++) {
+                if (texts[docId] != null && texts[docId].contains(normalized)) {
+                    results.add(values[docId]);
+                }
+            }
+            return results;
+        }
+
+        int gramCount = normalized.length() - GRAM_LENGTH + 1;
+        PostingList[] lists = new PostingList[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = postings.get(normalized.substring(i, i + GRAM_LENGTH));
+            if (lists[i] == null) {
+                return results; // Some gram never occurs, so nothing can match
+            }
+        }
+
+        // Intersect starting from the shortest posting list
+        int shortest = 0;
+        for (int i = 1; i < gramCount; i++) {
+            if (lists[i].size < lists[shortest].size) {
+                shortest = i;
+            }
+        }
+
+        int[] candidates = new int[lists[shortest].size];
+        System.arraycopy(lists[shortest].ids, 0, candidates, 0, candidates.length);
+        int candidateCount = candidates.length;
+
+        for (int i = 0; i < gramCount && candidateCount > 0; i++) {
+            if (i != shortest) {
+                candidateCount = intersect(candidates, candidateCount, lists[i]);
+            }
+        }
+
+        // Grams match in any order, so confirm the real substring
+        for (int i = 0; i < candidateCount; i++) {
+            int docId = candidates[i];
+            if (texts[docId].contains(normalized)) {
+                results.add(values[docId]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Keep only candidates present in the posting list; both are sorted ascending
+     */
+    private int intersect(int[] candidates, int candidateCount, PostingList list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < candidateCount && j < list.size; i++) {
+            while (j < list.size && list.ids[j] < candidates[i]) {
+                j++;
+            }
+            if (j < list.size && list.ids[j] == candidates[i]) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Renumber live documents densely by rebuilding the index
+     */
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        String[] oldTexts = texts;
+        V[] oldValues = values;
+        String[] oldKeys = keys;
+        int oldCount = nextDocId;
+
+        int capacity = Math.max(16, liveCount * 2);
+        this.postings = new MyHashMap<>();
+        this.docIds = new MyHashMap<>();
+        this.texts = new String[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.keys = new String[capacity];
+        this.nextDocId = 0;
+        this.liveCount = 0;
+
+        for (int docId = 0; docId < oldCount; docId++) {
+            if (oldTexts[docId] != null) {
+                put(oldKeys[docId], oldTexts[docId], oldValues[docId]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        int newCapacity = texts.length * 2;
+        String[] newTexts = new String[newCapacity];
+        V[] newValues = (V[]) new Object[newCapacity];
+        String[] newKeys = new String[newCapacity];
+        System.arraycopy(texts, 0, newTexts, 0, nextDocId);
+        System.arraycopy(values, 0, newValues, 0, nextDocId);
+        System.arraycopy(keys, 0, newKeys, 0, nextDocId);
+        texts = newTexts;
+        values = newValues;
+        keys = newKeys;
+    }
+
+    /**
+     * Normalize text for indexing and querying
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the number of indexed values
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Check if index is empty
+     */
+    public boolean isEmpty() {
+        return liveCount == 0;
+    }
+}
@@ -0,0 +1,260 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Custom Space-Saving sketch for approximate heavy hitters in fixed memory.
+ * At most 'capacity' keys are counted. A key that is not counted takes over the
+ * counter with the smallest count, inheriting that count as its error, so every
+ * estimate is an upper bound that overstates the true weight by at most
+ * total / capacity. Counters sit in an indexed min-heap keyed by count, so an
+ * update is O(log capacity) and the smallest counter is found in O(1).
+ * Sketches are mergeable, e.g. to combine per-day sketches into a rolling period.
+ *
+ * @param <K> the type of keys counted
+ */
+public class MySpaceSaving<K> {
+
+    /**
+     * Estimated weight of one key
+     */
+    public static class Counter<K> {
+        private final K key;
+        private long count; // Upper bound of the true weight
+        private long error; // count - error is a lower bound
+        private int index; // Position in the heap
+
+        private Counter(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        /**
+         * Weight the key is guaranteed to have reached
+         */
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + count + " (+/-" + error + ")";
+        }
+    }
+
+    private final Counter<K>[] heap; // Min-heap by count
+    private final MyHashMap<K, Counter<K>> counters;
+    private int size;
+    private long total; // Sum of all weights added
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public MySpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.heap = new Counter[capacity];
+        this.counters = new MyHashMap<>(capacity * 2);
+        this.size = 0;
+        this.total = 0;
+    }
+
+    /**
+     * Add weight to a key
+     */
+    public void add(K key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            siftDown(counter.index);
+        } else if (size < heap.length) {
+            insert(new Counter<>(key, weight, 0));
+        } else {
+            // Take over the smallest counter; its count bounds what the new key may have had
+            Counter<K> min = heap[0];
+            counters.remove(min.key);
+            Counter<K> replacement = new Counter<>(key, min.count + weight, min.count);
+            replacement.index = 0;
+            heap[0] = replacement;
+            counters.put(key, replacement);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Get the estimated weight of a key (an upper bound).
+     * Keys that are not counted have at most getMinCount().
+     */
+    public long estimate(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter != null ? counter.count : getMinCount();
+    }
+
+    /**
+     * Get the smallest count once every counter is in use, otherwise 0.
+     * No uncounted key can have more weight than this.
+     */
+    public long getMinCount() {
+        return size == heap.length ? heap[0].count : 0;
+    }
+
+    /**
+     * Get the k keys with the highest estimates, highest first
+     */
+    public List<Counter<K>> top(int k) {
+        Counter<K>[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, MySpaceSaving::byCountDesc);
+        List<Counter<K>> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, sorted.length); i++) {
+            result.add(new Counter<>(sorted[i].key, sorted[i].count, sorted[i].error));
+        }
+        return result;
+    }
+
+    /**
+     * Merge sketches into a new sketch of the given capacity.
+     * A key missing from a full sketch may have had up to that sketch's minimum
+     * count there, so that minimum is added to both its estimate and its error.
+     */
+    public static <K> MySpaceSaving<K> merge(int capacity, List<MySpaceSaving<K>> sketches) {
+        MyHashMap<K, long[]> combined = new MyHashMap<>(); // {counts, errors, floors where present}
+        List<K> keys = new ArrayList<>();
+        long floors = 0;
+        long total = 0;
+        for (MySpaceSaving<K> sketch : sketches) {
+            long floor = sketch.getMinCount();
+            floors += floor;
+            total += sketch.total;
+            for (int i = 0; i < sketch.size; i++) {
+                Counter<K> counter = sketch.heap[i];
+                long[] sums = combined.get(counter.key);
+                if (sums == null) {
+                    sums = new long[3];
+                    combined.put(counter.key, sums);
+                    keys.add(counter.key);
+                }
+                sums[0] += counter.count;
+                sums[1] += counter.error;
+                sums[2] += floor;
+            }
+        }
+
+        List<Counter<K>> candidates = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            long[] sums = combined.get(key);
+            long missing = floors - sums[2];
+            candidates.add(new Counter<>(key, sums[0] + missing, sums[1] + missing));
+        }
+        candidates.sort(MySpaceSaving::byCountDesc);
+
+        MySpaceSaving<K> merged = new MySpaceSaving<>(capacity);
+        for (int i = 0; i < Math.min(capacity, candidates.size()); i++) {
+            merged.insert(candidates.get(i));
+        }
+        merged.total = total;
+        return merged;
+    }
+
+    /**
+     * Get the total weight added
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the most an estimate can overstate a key's weight
+     */
+    public long getMaxError() {
+        return total / heap.length;
+    }
+
+    public int getCapacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Drop every counter
+     */
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        counters.clear();
+        size = 0;
+        total = 0;
+    }
+
+    private void insert(Counter<K> counter) {
+        counter.index = size;
+        heap[size++] = counter;
+        counters.put(counter.key, counter);
+        siftUp(counter.index);
+    }
+
+    private void siftUp(int index) {
+        Counter<K> counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter<K> counter = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (heap[child].count >= counter.count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter<K> counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static <K> int byCountDesc(Counter<K> a, Counter<K> b) {
+        return Long.compare(b.count, a.count);
+    }
+}
@@ -0,0 +1,239 @@
+package structures;
+
+import java.util.function.Consumer;
+
+/**
+ * Custom hierarchical timing wheel over integer ticks (e.g. epoch days).
+ * Level 0 has one slot per tick; each higher level has one slot per block of
+ * 64 slots of the level below. A timer sits on the lowest level whose block
+ * also contains the current tick, and is cascaded one level down when the
+ * clock enters its block, so each timer is moved at most LEVELS times before
+ * it fires. Scheduling, cancelling and rescheduling are O(1) through the
+ * returned handle; advancing only touches the slots the clock passes.
+ *
+ * @param <T> the type of items carried by the timers
+ */
+public class MyTimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS; // 64 slots per level
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4; // Covers 64^4 ticks (about 45,000 years of days)
+
+    private final Slot<T>[][] wheels;
+    private final Slot<T> overflow; // Beyond the top level; re-inserted when the top level wraps
+    private final Slot<T> due; // Scheduled at or before the current tick; fired on the next advance
+    private long currentTick;
+    private int size;
+
+    /**
+     * Handle to a scheduled item, used to cancel or reschedule it
+     */
+    public static class Timer<T> {
+        private final T item;
+        private long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private Slot<T> slot; // null when not scheduled
+
+        private Timer(T item) {
+            this.item = item;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isScheduled() {
+            return slot != null;
+        }
+    }
+
+    /**
+     * Doubly linked list of timers with a sentinel head
+     */
+    private static class Slot<T> {
+        final Timer<T> head = new Timer<>(null);
+
+        Slot() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void add(Timer<T> timer) {
+            timer.prev = head.prev;
+            timer.next = head;
+            head.prev.next = timer;
+            head.prev = timer;
+            timer.slot = this;
+        }
+
+        boolean isEmpty() {
+            return head.next == head;
+        }
+
+        /**
+         * Detach and return the first timer of a chain holding every timer in the slot
+         */
+        Timer<T> takeAll() {
+            if (isEmpty()) {
+                return null;
+            }
+            Timer<T> first = head.next;
+            head.prev.next = null; // Terminate the detached chain
+            head.prev = head;
+            head.next = head;
+            return first;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public MyTimingWheel(long startTick) {
+        this.wheels = new Slot[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheels[level][i] = new Slot<>();
+            }
+        }
+        this.overflow = new Slot<>();
+        this.due = new Slot<>();
+        this.currentTick = startTick;
+        this.size = 0;
+    }
+
+    /**
+     * Schedule an item to fire when the clock reaches the deadline.
+     * Deadlines at or before the current tick fire on the next advance.
+     */
+    public Timer<T> schedule(T item, long deadline) {
+        Timer<T> timer = new Timer<>(item);
+        timer.deadline = deadline;
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Move a scheduled (or already fired) timer to a new deadline
+     */
+    public void reschedule(Timer<T> timer, long deadline) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        timer.deadline = deadline;
+        place(timer);
+    }
+
+    /**
+     * Cancel a timer
+     *
+     * @return true if the timer was still scheduled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || !timer.isScheduled()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the clock to tick, firing every timer whose deadline has been
+     * reached, overdue ones first. The callback may cancel or reschedule timers.
+     */
+    public void advanceTo(long tick, Consumer<? super T> onFire) {
+        fire(due, onFire);
+        while (currentTick < tick) {
+            currentTick++;
+            cascade();
+            fire(wheels[0][(int) (currentTick & SLOT_MASK)], onFire);
+            fire(due, onFire); // Anything the callbacks scheduled for the past
+        }
+    }
+
+    /**
+     * Re-insert the timers of every higher-level slot whose block the clock just
+     * entered, top level first so they can trickle down in the same tick
+     */
+    private void cascade() {
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            reinsert(overflow.takeAll());
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                reinsert(wheels[level][(int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK)].takeAll());
+            }
+        }
+    }
+
+    private void reinsert(Timer<T> chain) {
+        while (chain != null) {
+            Timer<T> next = chain.next;
+            place(chain);
+            chain = next;
+        }
+    }
+
+    /**
+     * Fire the timers of a slot one at a time, so callbacks see a consistent wheel
+     */
+    private void fire(Slot<T> slot, Consumer<? super T> onFire) {
+        while (!slot.isEmpty()) {
+            Timer<T> timer = slot.head.next;
+            unlink(timer);
+            size--;
+            onFire.accept(timer.item);
+        }
+    }
+
+    /**
+     * Put a timer on the lowest level whose block contains both its deadline and the current tick
+     */
+    private void place(Timer<T> timer) {
+        long deadline = timer.deadline;
+        if (deadline <= currentTick) {
+            due.add(timer);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((deadline >> shift) == (currentTick >> shift)) {
+                wheels[level][(int) ((deadline >> (SLOT_BITS * level)) & SLOT_MASK)].add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        timer.slot = null;
+    }
+
+    /**
+     * Get the current tick
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Get the number of scheduled timers
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -1,9 +1,11 @@
 package structures;
 
 import java.util.Comparator;
+import java.util.function.Consumer;
 
 /**
- * Custom Binary Search Tree implementation
+ * Custom Binary Search Tree implementation, kept height-balanced (AVL) so
+ * inserts, removals and lookups stay O(log n) even for sorted input
  * 
  * @param <T> the type of elements stored in this tree
  */
@@ -19,11 +21,13 @@ public class MyTree<T> {
         T data;
         TreeNode<T> left;
         TreeNode<T> right;
+        int height; // Height of the subtree rooted here (a leaf is 0)
 
         TreeNode(T data) {
             this.data = data;
             this.left = null;
             this.right = null;
+            this.height = 0;
         }
     }
 
@@ -43,38 +47,28 @@ public class MyTree<T> {
      * Insert an element into the tree
      */
     public boolean insert(T item) {
-        if (root == null) {
-            root = new TreeNode<>(item);
+        int sizeBefore = size;
+        root = insertRecursive(root, item);
+        return size > sizeBefore;
+    }
+
+    private TreeNode<T> insertRecursive(TreeNode<T> node, T item) {
+        if (node == null) {
             size++;
-            return true;
+            return new TreeNode<>(item);
         }
 
-        return insertRecursive(root, item);
-    }
-
-    private boolean insertRecursive(TreeNode<T> node, T item) {
         int comparison = compare(item, node.data);
 
         if (comparison < 0) {
-            if (node.left == null) {
-                node.left = new TreeNode<>(item);
-                size++;
-                return true;
-            } else {
-                return insertRecursive(node.left, item);
-            }
+            node.left = insertRecursive(node.left, item);
         } else if (comparison > 0) {
-            if (node.right == null) {
-                node.right = new TreeNode<>(item);
-                size++;
-                return true;
-            } else {
-                return insertRecursive(node.right, item);
-            }
+            node.right = insertRecursive(node.right, item);
         } else {
             // Duplicate values not allowed
-            return false;
+            return node;
         }
+        return rebalance(node);
     }
 
     /**
@@ -112,76 +106,77 @@ public class MyTree<T> {
      * Remove an element from the tree
      */
     public boolean remove(T item) {
-        if (root == null) {
-            return false;
-        }
+        int sizeBefore = size;
+        root = removeRecursive(root, item);
+        return size < sizeBefore;
+    }
 
-        TreeNode<T> parent = null;
-        TreeNode<T> current = root;
-
-        // Find the node to remove and its parent
-        while (current != null) {
-            int comparison = compare(item, current.data);
-
-            if (comparison == 0) {
-                break; // Found the node
-            } else if (comparison < 0) {
-                parent = current;
-                current = current.left;
-            } else {
-                parent = current;
-                current = current.right;
-            }
+    private TreeNode<T> removeRecursive(TreeNode<T> node, T item) {
+        if (node == null) {
+            return null; // Node not found
         }
 
-        if (current == null) {
-            return false; // Node not found
+        int comparison = compare(item, node.data);
+
+        if (comparison < 0) {
+            node.left = removeRecursive(node.left, item);
+        } else if (comparison > 0) {
+            node.right = removeRecursive(node.right, item);
+        } else if (node.left == null || node.right == null) {
+            // Zero or one child: splice the node out
+            size--;
+            return node.left != null ? node.left : node.right;
+        } else {
+            // Two children: take the inorder successor's data, then remove the successor
+            TreeNode<T> successor = findMin(node.right);
+            node.data = successor.data;
+            node.right = removeRecursive(node.right, successor.data);
         }
+        return rebalance(node);
+    }
 
-        // Case 1: Node has no children (leaf node)
-        if (current.left == null && current.right == null) {
-            if (parent == null) {
-                root = null; // Removing root
-            } else if (parent.left == current) {
-                parent.left = null;
-            } else {
-                parent.right = null;
+    /**
+     * Restore the AVL property at a node whose subtrees differ in height by at most two
+     */
+    private TreeNode<T> rebalance(TreeNode<T> node) {
+        updateHeight(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
             }
+            return rotateRight(node);
         }
-        // Case 2: Node has one child
-        else if (current.left == null) {
-            if (parent == null) {
-                root = current.right;
-            } else if (parent.left == current) {
-                parent.left = current.right;
-            } else {
-                parent.right = current.right;
-            }
-        } else if (current.right == null) {
-            if (parent == null) {
-                root = current.left;
-            } else if (parent.left == current) {
-                parent.left = current.left;
-            } else {
-                parent.right = current.left;
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
             }
+            return rotateLeft(node);
         }
-        // Case 3: Node has two children
-        else {
-            // Find inorder successor (smallest node in right subtree)
-            TreeNode<T> successor = findMin(current.right);
-            T successorData = successor.data;
-
-            // Remove the successor (which has at most one child)
-            remove(successorData);
-
-            // Replace current node's data with successor's data
-            current.data = successorData;
-            return true; // Early return to avoid decrementing size twice
-        }
+        return node;
+    }
+
+    private TreeNode<T> rotateRight(TreeNode<T> node) {
+        TreeNode<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private TreeNode<T> rotateLeft(TreeNode<T> node) {
+        TreeNode<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
 
-        size--;
-        return true;
+    private void updateHeight(TreeNode<T> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
     }
 
     /**
@@ -258,6 +253,21 @@ public class MyTree<T> {
         }
     }
 
+    /**
+     * Visit every element in sorted order
+     */
+    public void forEachInOrder(Consumer<? super T> action) {
+        forEachRecursive(root, action);
+    }
+
+    private void forEachRecursive(TreeNode<T> node, Consumer<? super T> action) {
+        if (node != null) {
+            forEachRecursive(node.left, action);
+            action.accept(node.data);
+            forEachRecursive(node.right, action);
+        }
+    }
+
     /**
      * Get preorder traversal of the tree
      */
@@ -296,10 +306,7 @@ public class MyTree<T> {
     }
 
     private int height(TreeNode<T> node) {
-        if (node == null) {
-            return -1;
-        }
-        return 1 + Math.max(height(node.left), height(node.right));
+        return node != null ? node.height : -1;
     }
 
     @Override
@@ -0,0 +1,308 @@
+package structures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom prefix trie for ranked autocomplete.
+ * Children are kept in compact sorted char arrays instead of a full alphabet
+ * table, and every node caches the K highest-scoring entries of its subtree,
+ * so completing a prefix costs O(prefix + K) instead of a subtree scan.
+ *
+ * @param <V> the type of values stored under keys
+ */
+public class MyTrie<V> {
+    private final int topK;
+    private TrieNode<V> root;
+    private int size;
+
+    /**
+     * A value stored under a key together with its ranking score
+     */
+    private static class Entry<V> {
+        final String key;
+        final V value;
+        long score;
+
+        Entry(String key, V value, long score) {
+            this.key = key;
+            this.value = value;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Node class for the trie
+     */
+    private static class TrieNode<V> {
+        char[] labels = new char[0];
+        TrieNode<V>[] children = newChildren(0);
+        int childCount;
+        List<Entry<V>> entries; // Values whose key ends here, null if none
+        Entry<V>[] top; // Highest-scoring entries in this subtree, best first
+        int topCount;
+
+        TrieNode(int topK) {
+            this.top = newEntries(topK);
+        }
+
+        TrieNode<V> child(char c) {
+            int index = indexOf(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        int indexOf(char c) {
+            int low = 0, high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (labels[mid] < c) {
+                    low = mid + 1;
+                } else if (labels[mid] > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        TrieNode<V> addChild(char c, int topK) {
+            int insertAt = -(indexOf(c) + 1);
+            if (childCount == labels.length) {
+                int newCapacity = Math.max(2, childCount * 2);
+                char[] newLabels = new char[newCapacity];
+                TrieNode<V>[] newChildren = newChildren(newCapacity);
+                System.arraycopy(labels, 0, newLabels, 0, childCount);
+                System.arraycopy(children, 0, newChildren, 0, childCount);
+                labels = newLabels;
+                children = newChildren;
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            TrieNode<V> node = new TrieNode<>(topK);
+            labels[insertAt] = c;
+            children[insertAt] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int index = indexOf(c);
+            if (index >= 0) {
+                System.arraycopy(labels, index + 1, labels, index, childCount - index - 1);
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                childCount--;
+                children[childCount] = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return childCount == 0 && (entries == null || entries.isEmpty());
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <V> TrieNode<V>[] newChildren(int capacity) {
+            return (TrieNode<V>[]) new TrieNode[capacity];
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static <V> Entry<V>[] newEntries(int capacity) {
+            return (Entry<V>[]) new Entry[capacity];
+        }
+    }
+
+    public MyTrie(int topK) {
+        this.topK = topK;
+        this.root = new TrieNode<>(topK);
+        this.size = 0;
+    }
+
+    public MyTrie() {
+        this(5); // Default number of cached completions
+    }
+
+    /**
+     * Insert a value under a key, or update its score if already present
+     * Time Complexity: O(L * (children + K)) to refresh the cached rankings on the path
+     */
+    public void put(String key, V value, long score) {
+        TrieNode<V>[] path = TrieNode.newChildren(key.length() + 1);
+        TrieNode<V> node = root;
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            TrieNode<V> next = node.child(key.charAt(i));
+            if (next == null) {
+                next = node.addChild(key.charAt(i), topK);
+            }
+            node = next;
+            path[i + 1] = node;
+        }
+
+        if (node.entries == null) {
+            node.entries = new ArrayList<>(1);
+        }
+        Entry<V> existing = findEntry(node, value);
+        if (existing != null) {
+            existing.score = score;
+        } else {
+            node.entries.add(new Entry<>(key, value, score));
+            size++;
+        }
+
+        refreshPath(path, key.length());
+    }
+
+    /**
+     * Remove a value stored under a key
+     */
+    public boolean remove(String key, V value) {
+        TrieNode<V>[] path = TrieNode.newChildren(key.length() + 1);
+        TrieNode<V> node = root;
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            path[i + 1] = node;
+        }
+
+        Entry<V> existing = findEntry(node, value);
+        if (existing == null) {
+            return false;
+        }
+        node.entries.remove(existing);
+        size--;
+
+        // Prune nodes left without values or children
+        int depth = key.length();
+        while (depth > 0 && path[depth].isEmpty()) {
+            path[depth - 1].removeChild(key.charAt(depth - 1));
+            depth--;
+        }
+
+        refreshPath(path, depth);
+        return true;
+    }
+
+    /**
+     * Get up to limit values whose key starts with the prefix, highest score first
+     * Time Complexity: O(prefix + K)
+     */
+    public List<V> complete(String prefix, int limit) {
+        List<V> results = new ArrayList<>();
+        TrieNode<V> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+
+        if (node != null) {
+            int count = Math.min(limit, node.topCount);
+            for (int i = 0; i < count; i++) {
+                results.add(node.top[i].value);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Check if any key starts with the prefix
+     */
+    public boolean hasPrefix(String prefix) {
+        TrieNode<V> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node != null && !node.isEmpty();
+    }
+
+    /**
+     * Recompute the cached top-K lists from the deepest changed node up to the root.
+     * Each child's list already holds its subtree's best entries, so a node only
+     * merges its own entries with its children's lists.
+     */
+    private void refreshPath(TrieNode<V>[] path, int depth) {
+        for (int d = depth; d >= 0; d--) {
+            TrieNode<V> node = path[d];
+            node.topCount = 0;
+
+            if (node.entries != null) {
+                for (Entry<V> entry : node.entries) {
+                    offer(node, entry);
+                }
+            }
+            for (int c = 0; c < node.childCount; c++) {
+                TrieNode<V> child = node.children[c];
+                for (int i = 0; i < child.topCount; i++) {
+                    offer(node, child.top[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert an entry into a node's bounded top list, keeping it sorted best first
+     */
+    private void offer(TrieNode<V> node, Entry<V> entry) {
+        if (node.topCount == topK && !ranksBefore(entry, node.top[topK - 1])) {
+            return;
+        }
+
+        int i = Math.min(node.topCount, topK - 1);
+        while (i > 0 && ranksBefore(entry, node.top[i - 1])) {
+            node.top[i] = node.top[i - 1];
+            i--;
+        }
+        node.top[i] = entry;
+        if (node.topCount < topK) {
+            node.topCount++;
+        }
+    }
+
+    /**
+     * Higher scores first, shorter then alphabetical keys on ties
+     */
+    private boolean ranksBefore(Entry<V> a, Entry<V> b) {
+        if (a.score != b.score) {
+            return a.score > b.score;
+        }
+        if (a.key.length() != b.key.length()) {
+            return a.key.length() < b.key.length();
+        }
+        return a.key.compareTo(b.key) < 0;
+    }
+
+    private Entry<V> findEntry(TrieNode<V> node, V value) {
+        if (node.entries == null) {
+            return null;
+        }
+        for (Entry<V> entry : node.entries) {
+            if (entry.value == null ? value == null : entry.value.equals(value)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of stored values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if trie is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clear all elements from the trie
+     */
+    public void clear() {
+        root = new TrieNode<>(topK);
+        size = 0;
+    }
+}
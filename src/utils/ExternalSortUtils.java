@@ -0,0 +1,293 @@
+package utils;
+
+import structures.MyMinHeap;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Utility class for sorting line-based data files that do not fit in memory.
+ * Lines are read in runs bounded by a memory budget, each run is sorted with
+ * merge sort and spilled to a temp file, and the runs are k-way merged
+ * through a min-heap into the sorted output.
+ */
+public class ExternalSortUtils {
+
+    public static final long DEFAULT_MEMORY_BUDGET = Math.min(64L * 1024 * 1024,
+            Runtime.getRuntime().maxMemory() / 4);
+    private static final int MAX_MERGE_FAN_IN = 128; // Bounds open files and reader buffers per merge pass
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int STRING_OVERHEAD_BYTES = 64; // String + char array headers + list slot
+
+    /**
+     * A sorted run being consumed during the merge phase
+     */
+    private static class RunCursor {
+        final BufferedReader reader;
+        final int order; // Position of the run in file order, breaks ties to keep the merge stable
+        String current;
+
+        RunCursor(File run, int order) throws IOException {
+            this.reader = openReader(run);
+            this.order = order;
+            this.current = reader.readLine();
+        }
+
+        boolean advance() throws IOException {
+            current = reader.readLine();
+            return current != null;
+        }
+    }
+
+    /**
+     * Sort a data file into another data file using the default memory budget.
+     * Leading comment lines (starting with '#') are kept at the top of the output.
+     */
+    public static boolean sortDataFile(String inputFilename, String outputFilename, Comparator<String> comparator) {
+        return sortDataFile(inputFilename, outputFilename, comparator, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Sort a data file into another data file within the given memory budget (in bytes)
+     */
+    public static boolean sortDataFile(String inputFilename, String outputFilename, Comparator<String> comparator,
+            long memoryBudgetBytes) {
+        return sortFile(FileUtils.getDataFile(inputFilename), FileUtils.getDataFile(outputFilename),
+                comparator, memoryBudgetBytes);
+    }
+
+    /**
+     * Sort a line-based file using external merge sort
+     * Time Complexity: O(n log n) comparisons, O(n log_k(runs)) line I/O
+     * Space Complexity: O(memoryBudget) heap, O(n) temporary disk
+     */
+    public static boolean sortFile(File input, File output, Comparator<String> comparator, long memoryBudgetBytes) {
+        List<File> inputs = new ArrayList<>();
+        inputs.add(input);
+        return sortFiles(inputs, output, comparator, memoryBudgetBytes);
+    }
+
+    /**
+     * Sort the lines of several files into one output using external merge sort.
+     * Only the first file's leading comment lines are kept; those of the others are skipped.
+     */
+    public static boolean sortFiles(List<File> inputs, File output, Comparator<String> comparator,
+            long memoryBudgetBytes) {
+        List<File> runs = new ArrayList<>();
+        List<File> tempFiles = new ArrayList<>(); // Every temp file created, for cleanup on failure
+        File tempDir = output.getAbsoluteFile().getParentFile();
+
+        try {
+            List<String> header = new ArrayList<>();
+            List<String> chunk = new ArrayList<>();
+            long chunkBytes = 0;
+
+            for (int i = 0; i < inputs.size(); i++) {
+                try (BufferedReader reader = openReader(inputs.get(i))) {
+                    boolean inHeader = true;
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (inHeader && line.startsWith("#")) {
+                            if (i == 0) {
+                                header.add(line);
+                            }
+                            continue;
+                        }
+                        inHeader = false;
+                        if (line.trim().isEmpty()) {
+                            continue;
+                        }
+
+                        chunk.add(line);
+                        chunkBytes += STRING_OVERHEAD_BYTES + 2L * line.length();
+                        if (chunkBytes >= memoryBudgetBytes) {
+                            runs.add(spillRun(chunk, comparator, tempDir));
+                            tempFiles.add(runs.get(runs.size() - 1));
+                            chunk.clear();
+                            chunkBytes = 0;
+                        }
+                    }
+                }
+            }
+
+            // Everything fit in memory - no temp files needed
+            if (runs.isEmpty()) {
+                String[] sorted = sortChunk(chunk, comparator);
+                try (BufferedWriter writer = openWriter(output)) {
+                    writeLines(writer, header);
+                    for (String sortedLine : sorted) {
+                        writer.write(sortedLine);
+                        writer.newLine();
+                    }
+                }
+                return true;
+            }
+
+            if (!chunk.isEmpty()) {
+                runs.add(spillRun(chunk, comparator, tempDir));
+                tempFiles.add(runs.get(runs.size() - 1));
+                chunk.clear();
+            }
+
+            // Reduce the number of runs until a single pass can merge them all
+            while (runs.size() > MAX_MERGE_FAN_IN) {
+                List<File> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_MERGE_FAN_IN) {
+                    List<File> group = runs.subList(i, Math.min(i + MAX_MERGE_FAN_IN, runs.size()));
+                    File target = File.createTempFile("sortrun", ".tmp", tempDir);
+                    tempFiles.add(target);
+                    try (BufferedWriter writer = openWriter(target)) {
+                        mergeRuns(group, comparator, writer);
+                    }
+                    deleteAll(group);
+                    merged.add(target);
+                }
+                runs = merged;
+            }
+
+            try (BufferedWriter writer = openWriter(output)) {
+                writeLines(writer, header);
+                mergeRuns(runs, comparator, writer);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error sorting " + inputs + ": " + e.getMessage());
+            return false;
+        } finally {
+            deleteAll(tempFiles);
+        }
+    }
+
+    /**
+     * K-way merge of sorted runs using a min-heap keyed on each run's current line
+     */
+    private static void mergeRuns(List<File> runs, Comparator<String> comparator, BufferedWriter writer)
+            throws IOException {
+        MyMinHeap<RunCursor> heap = new MyMinHeap<>(runs.size(), (a, b) -> {
+            int comparison = comparator.compare(a.current, b.current);
+            return comparison != 0 ? comparison : Integer.compare(a.order, b.order);
+        });
+        List<RunCursor> cursors = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor cursor = new RunCursor(runs.get(i), i);
+                cursors.add(cursor);
+                if (cursor.current != null) {
+                    heap.insert(cursor);
+                }
+            }
+
+            while (!heap.isEmpty()) {
+                RunCursor smallest = heap.extractMin();
+                writer.write(smallest.current);
+                writer.newLine();
+                if (smallest.advance()) {
+                    heap.insert(smallest);
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.reader.close();
+            }
+        }
+    }
+
+    /**
+     * Sort an in-memory chunk and write it to a temp file
+     */
+    private static File spillRun(List<String> chunk, Comparator<String> comparator, File tempDir)
+            throws IOException {
+        String[] sorted = sortChunk(chunk, comparator);
+        File run = File.createTempFile("sortrun", ".tmp", tempDir);
+        try (BufferedWriter writer = openWriter(run)) {
+            for (String line : sorted) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return run;
+    }
+
+    private static String[] sortChunk(List<String> chunk, Comparator<String> comparator) {
+        String[] lines = chunk.toArray(new String[0]);
+        SortUtils.mergeSort(lines, comparator); // Stable, so equal keys keep file order
+        return lines;
+    }
+
+    /**
+     * Comparator on one field of a delimited line, without allocating substrings.
+     * Works for the pipe-delimited transaction and sales logs, whose
+     * "yyyy-MM-dd HH:mm" timestamps order correctly as text.
+     */
+    public static Comparator<String> byField(char delimiter, int fieldIndex) {
+        return (a, b) -> {
+            int aStart = fieldStart(a, delimiter, fieldIndex);
+            int bStart = fieldStart(b, delimiter, fieldIndex);
+            int aEnd = fieldEnd(a, delimiter, aStart);
+            int bEnd = fieldEnd(b, delimiter, bStart);
+
+            int aLength = aEnd - aStart;
+            int bLength = bEnd - bStart;
+            int limit = Math.min(aLength, bLength);
+            for (int i = 0; i < limit; i++) {
+                char ca = a.charAt(aStart + i);
+                char cb = b.charAt(bStart + i);
+                if (ca != cb) {
+                    return ca - cb;
+                }
+            }
+            return aLength - bLength;
+        };
+    }
+
+    /**
+     * Comparator on one field of a pipe-delimited line
+     */
+    public static Comparator<String> byPipeField(int fieldIndex) {
+        return byField('|', fieldIndex);
+    }
+
+    private static int fieldStart(String line, char delimiter, int fieldIndex) {
+        int start = 0;
+        for (int i = 0; i < fieldIndex; i++) {
+            int next = line.indexOf(delimiter, start);
+            if (next < 0) {
+                return line.length(); // Missing fields compare as empty
+            }
+            start = next + 1;
+        }
+        return start;
+    }
+
+    private static int fieldEnd(String line, char delimiter, int start) {
+        int end = line.indexOf(delimiter, start);
+        return end < 0 ? line.length() : end;
+    }
+
+    private static void writeLines(BufferedWriter writer, List<String> lines) throws IOException {
+        for (String line : lines) {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    private static void deleteAll(List<File> files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private static BufferedReader openReader(File file) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    private static BufferedWriter openWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+}
@@ -81,23 +81,54 @@ public class FileUtils {
      * Write content to a report file
      */
     public static boolean writeReport(String filename, String content) {
-        try {
-            // Create reports directory if it doesn't exist
-            File reportsDir = new File(REPORTS_DIR);
-            if (!reportsDir.exists()) {
-                reportsDir.mkdirs();
+        try (ReportWriter report = openReport(filename)) {
+            if (report == null) {
+                return false;
             }
+            report.write(content);
+            return report.finish();
+        }
+    }
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(REPORTS_DIR + filename))) {
-                writer.write(content);
-                return true;
-            }
+    /**
+     * Open a streaming writer for a report file in the reports directory
+     *
+     * @return the writer, or null if the file could not be created
+     */
+    public static ReportWriter openReport(String filename) {
+        try {
+            return new ReportWriter(reportsDir().toPath().resolve(filename));
         } catch (IOException e) {
             System.err.println("Error writing report " + filename + ": " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Get the File handle for a report file, creating the reports directory if needed
+     */
+    public static File getReportFile(String filename) {
+        return new File(reportsDir(), filename);
+    }
+
+    /**
+     * Get the reports directory, creating it if it doesn't exist
+     */
+    private static File reportsDir() {
+        File reportsDir = new File(REPORTS_DIR);
+        if (!reportsDir.exists()) {
+            reportsDir.mkdirs();
+        }
+        return reportsDir;
+    }
+
+    /**
+     * Get the File handle for a data file
+     */
+    public static File getDataFile(String filename) {
+        return new File(DATA_DIR + filename);
+    }
+
     /**
      * Check if a file exists
      */
@@ -249,6 +280,23 @@ public class FileUtils {
         return sb.toString();
     }
 
+    /**
+     * Reduce a phone number to its digits, so "(055) 123-4567" and "0551234567" compare equal
+     */
+    public static String normalizePhoneNumber(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
     /**
      * Initialize data files with headers if they don't exist
      */
@@ -272,7 +320,7 @@ public class FileUtils {
 
         if (!fileExists("suppliers.txt")) {
             List<String> headers = new ArrayList<>();
-            headers.add("# Supplier ID,Name,Contact,Email,Location,Delivery Days");
+            headers.add("# Format: supplierId|name|location|deliveryTime (in days)|contact (optional)");
             writeLines("suppliers.txt", headers);
         }
 
@@ -239,7 +239,7 @@ public class InputUtils {
      * Basic phone number validation
      */
     private static boolean isValidPhoneNumber(String phone) {
-        return phone.matches("^[\\d\\s\\-\\(\\)\\+]+$") && phone.replaceAll("[^\\d]", "").length() >= 10;
+        return phone.matches("^[\\d\\s\\-\\(\\)\\+]+$") && FileUtils.normalizePhoneNumber(phone).length() >= 10;
     }
 
     /**
@@ -0,0 +1,211 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming writer for text reports.
+ * Titles, sections and table rows are encoded into a fixed-size buffer and
+ * written to a file channel whenever it fills, so memory stays bounded however
+ * many rows a report has. The report is written to a temporary file and only
+ * renamed into place by finish(), so an aborted report never replaces a good one.
+ * Open with FileUtils.openReport and use in try-with-resources.
+ */
+public class ReportWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final int WIDTH = 61; // Same as InputUtils.printHeader
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private String rowFormat;
+    private long rowCount;
+    private boolean failed;
+    private boolean closed;
+
+    ReportWriter(Path target) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     * Write the report title with a generation timestamp
+     */
+    public void title(String title) {
+        line("=".repeat(WIDTH));
+        line("  " + title);
+        line("  Generated: " + FileUtils.formatDateTime(LocalDateTime.now()));
+        line("=".repeat(WIDTH));
+    }
+
+    /**
+     * Start a new section
+     */
+    public void section(String heading) {
+        blank();
+        line(heading);
+        line("-".repeat(heading.length()));
+    }
+
+    /**
+     * Write a labelled value, e.g. "Total drugs: 12"
+     */
+    public void field(String label, Object value) {
+        line(String.format("%-30s %s", label + ":", value));
+    }
+
+    /**
+     * Start a table: write the column headers and set the format used by row().
+     * Headers are laid out with the same widths, e.g. "%8d" becomes "%8s".
+     */
+    public void columns(String format, String... headers) {
+        this.rowFormat = format;
+        String header = String.format(format.replaceAll("%(-?\\d*)(\\.\\d+)?[a-zA-Z]", "%$1s"), (Object[]) headers);
+        line(header);
+        line("-".repeat(Math.min(header.length(), WIDTH * 2)));
+    }
+
+    /**
+     * Write one table row in the format given to columns()
+     */
+    public void row(Object... values) {
+        line(String.format(rowFormat, values));
+        rowCount++;
+    }
+
+    /**
+     * Write a line of text
+     */
+    public void line(String text) {
+        write(text);
+        write(NEW_LINE);
+    }
+
+    /**
+     * Write an empty line
+     */
+    public void blank() {
+        write(NEW_LINE);
+    }
+
+    /**
+     * Write raw text without a line break
+     */
+    public void write(String text) {
+        if (failed || closed) {
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+                if (failed) {
+                    return;
+                }
+            }
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+        buffer.clear();
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            System.err.println("Error writing report " + target.getFileName() + ": " + e.getMessage());
+            failed = true;
+        }
+    }
+
+    /**
+     * Get the number of table rows written so far
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the file the report is published to by finish()
+     */
+    public Path getPath() {
+        return target;
+    }
+
+    /**
+     * Flush and publish the report
+     *
+     * @return true if the whole report was written
+     */
+    public boolean finish() {
+        if (closed) {
+            return !failed;
+        }
+        if (!failed) {
+            flushBuffer();
+        }
+        closeChannel();
+        if (!failed) {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        if (failed) {
+            deleteTemp();
+        }
+        return !failed;
+    }
+
+    /**
+     * Discard the report unless finish() was called
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closeChannel();
+            deleteTemp();
+        }
+    }
+
+    private void closeChannel() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void deleteTemp() {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // Nothing else to do with a leftover temporary file
+        }
+    }
+}
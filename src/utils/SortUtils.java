@@ -1,12 +1,18 @@
 package utils;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Utility class containing custom sorting algorithms
  */
 public class SortUtils {
 
+    // Counting sort is only used while the key range stays close to the array size
+    private static final int COUNTING_SORT_MAX_EXTRA_RANGE = 1 << 16;
+
     /**
      * Insertion Sort implementation
      * Time Complexity: O(n²) worst case, O(n) best case
@@ -201,6 +207,134 @@ public class SortUtils {
         bubbleSort(array, (a, b) -> a.compareTo(b));
     }
 
+    /**
+     * Counting Sort by an int key extracted once per element (stable)
+     * Time Complexity: O(n + k) where k is the key range
+     * Space Complexity: O(n + k)
+     * Falls back to radix sort when the key range is much larger than the array
+     */
+    public static <T> void countingSortByIntKey(T[] array, ToIntFunction<T> keyExtractor) {
+        if (array == null || array.length <= 1) {
+            return;
+        }
+
+        int n = array.length;
+        int[] keys = new int[n];
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.applyAsInt(array[i]);
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+        }
+
+        long range = (long) max - min + 1;
+        if (range > n + COUNTING_SORT_MAX_EXTRA_RANGE) {
+            long[] longKeys = new long[n];
+            for (int i = 0; i < n; i++) {
+                longKeys[i] = keys[i];
+            }
+            applyPermutation(array, radixSortPermutation(longKeys));
+            return;
+        }
+
+        int[] counts = new int[(int) range + 1];
+        for (int key : keys) {
+            counts[key - min + 1]++;
+        }
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        T[] original = array.clone();
+        for (int i = 0; i < n; i++) {
+            array[counts[keys[i] - min]++] = original[i];
+        }
+    }
+
+    /**
+     * LSD Radix Sort by a long key extracted once per element (stable)
+     * Time Complexity: O(n) - at most 8 passes of 8 bits
+     * Space Complexity: O(n)
+     */
+    public static <T> void radixSortByLongKey(T[] array, ToLongFunction<T> keyExtractor) {
+        if (array == null || array.length <= 1) {
+            return;
+        }
+
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = keyExtractor.applyAsLong(array[i]);
+        }
+        applyPermutation(array, radixSortPermutation(keys));
+    }
+
+    /**
+     * Compute the stable sorting permutation of the given keys using LSD radix sort.
+     * Element i of the result is the original index of the i-th smallest key.
+     * Passes in which every key shares the same byte are skipped, so small
+     * keys such as prices in cents only cost two or three passes.
+     */
+    public static int[] radixSortPermutation(long[] keys) {
+        int n = keys.length;
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        if (n <= 1) {
+            return perm;
+        }
+
+        // Flip the sign bit so negative keys order before positive ones
+        long[] current = new long[n];
+        for (int i = 0; i < n; i++) {
+            current[i] = keys[i] ^ Long.MIN_VALUE;
+        }
+
+        long[] nextKeys = new long[n];
+        int[] nextPerm = new int[n];
+        int[] counts = new int[257];
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) ((current[i] >>> shift) & 0xFF) + 1]++;
+            }
+
+            // Every key has the same byte here, nothing to reorder
+            if (counts[(int) ((current[0] >>> shift) & 0xFF) + 1] == n) {
+                continue;
+            }
+
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                int target = counts[(int) ((current[i] >>> shift) & 0xFF)]++;
+                nextKeys[target] = current[i];
+                nextPerm[target] = perm[i];
+            }
+
+            long[] swapKeys = current;
+            current = nextKeys;
+            nextKeys = swapKeys;
+            int[] swapPerm = perm;
+            perm = nextPerm;
+            nextPerm = swapPerm;
+        }
+
+        return perm;
+    }
+
+    /**
+     * Reorder an array so that position i holds the element previously at perm[i]
+     */
+    public static <T> void applyPermutation(T[] array, int[] perm) {
+        T[] original = array.clone();
+        for (int i = 0; i < perm.length; i++) {
+            array[i] = original[perm[i]];
+        }
+    }
+
     /**
      * Binary Search implementation
      * Time Complexity: O(log n)